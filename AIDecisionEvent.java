@@ -0,0 +1,43 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for every move chosen by an AI player, see EngineMetrics.decided.
+ * It is recorded only while a recording enables it, for example with
+ * -XX:StartFlightRecording:settings=profile.
+ */
+@Name("reversi.AIDecision")
+@Label("AI Decision")
+@Category("Reversi")
+@Description("A move chosen by an AI player")
+class AIDecisionEvent extends Event {
+    @Label("AI")
+    String ai;
+
+    @Label("First Player")
+    boolean firstPlayer;
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Disc Type")
+    String discType;
+
+    @Label("Think Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long thinkTime;
+
+    @Label("Nodes")
+    @Description("The search nodes or playouts of the decision, 0 for the AIs which do not search")
+    long nodes;
+
+    @Label("Depth")
+    int depth;
+}
@@ -8,6 +8,8 @@ public abstract class AIPlayer extends Player {
     public static void registerAllAIPlayers() {
         registerAIPlayerType("RandomAI", RandomAI.class);
         registerAIPlayerType("GreedyAI", GreedyAI.class);
+        registerAIPlayerType("AlphaBetaAI", AlphaBetaAI.class);
+        registerAIPlayerType("MCTSAI", MCTSAI.class);
         // Add more AIPlayer subclasses here as needed
     }
     @Override
@@ -0,0 +1,214 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * An AI player which searches the game tree with negamax and alpha-beta pruning.
+ * The search deepens one ply at a time until its time budget per move is spent, and the move
+ * chosen by the last completed depth is played. Bomb and unflippable placements are searched as well.
+ * The budget defaults to the "reversi.ai.millis" system property (500 ms when it is not set).
+ * Search results are kept in the transposition table shared by all the AI players of the process.
+ * With more than one thread (the "reversi.ai.threads" system property, 1 when it is not set) the
+ * search runs in Lazy SMP fashion: helper threads search their own copy of the position on a
+ * ForkJoinPool and share their results with the main search through the transposition table.
+ * Once few cells are left (the "reversi.ai.endgame" system property, 12 when it is not set) the AI first
+ * tries to solve the game exactly with an EndgameSolver on half of its budget, and falls back to the
+ * heuristic search when the solver runs out of time.
+ * The search runs on 8x8 bitboards, the other board sizes are played like GreedyAI.
+ */
+public class AlphaBetaAI extends AIPlayer {
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = Long.getLong("reversi.ai.millis", 500);
+    private static final int DEFAULT_THREADS = Integer.getInteger("reversi.ai.threads", 1);
+    private static final int DEFAULT_ENDGAME_EMPTIES = Integer.getInteger("reversi.ai.endgame", 12);
+    private static final ForkJoinPool SEARCH_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private long timeBudgetMillis;
+    private int threads = DEFAULT_THREADS;
+    private int maxDepth = 64;
+    private int endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+    private boolean lastSolved;
+    private int lastDepth;
+    private long lastNodes;
+    private long lastElapsedNanos;
+    private MoveAnalysis fallback; // The moves of the boards other than 8x8, played greedily
+
+    public AlphaBetaAI(boolean isPlayerOne) {
+        this(isPlayerOne, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public AlphaBetaAI(boolean isPlayerOne, long timeBudgetMillis) {
+        super(isPlayerOne);
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        long start = System.nanoTime();
+        if (gameStatus.getBoardSize() != 8) {
+            return EngineMetrics.decided(this, playGreedily(gameStatus), start, 0, 0);
+        }
+        BitboardGameLogic board = BitboardGameLogic.copyOf(gameStatus);
+        long legal = board.validMovesMask();
+        if (legal == 0) {
+            return EngineMetrics.decided(this, null, start, 0, 0); // No valid moves available, return null
+        }
+
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+        int empties = EndgameSolver.emptyCount(board);
+        lastSolved = false;
+        if (empties <= endgameEmpties) {
+            EndgameSolver solver = new EndgameSolver(board, EndgameSolver.sharedTable());
+            int solvedMove = solver.solve(start + timeBudgetMillis * 500_000L);
+            if (solvedMove >= 0) {
+                lastSolved = true;
+                lastDepth = empties;
+                lastNodes = solver.getNodes();
+                lastElapsedNanos = System.nanoTime() - start;
+                return EngineMetrics.decided(this, toMove(solvedMove, gameStatus), start, lastNodes, lastDepth);
+            }
+        }
+
+        TranspositionTable table = TranspositionTable.shared();
+        table.newSearch();
+        int depthLimit = Math.min(empties, maxDepth);
+
+        // Every helper gets its own copy of the position, half of them start one ply deeper
+        AlphaBetaSearch[] helpers = new AlphaBetaSearch[threads - 1];
+        List<Future<Integer>> helperMoves = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = new AlphaBetaSearch(BitboardGameLogic.copyOf(board), table);
+            int startDepth = 1 + (i + 1) % 2;
+            helpers[i] = helper;
+            helperMoves.add(SEARCH_POOL.submit(() -> helper.iterate(startDepth, depthLimit, deadline)));
+        }
+
+        AlphaBetaSearch main = new AlphaBetaSearch(board, table);
+        int bestMove = main.iterate(1, depthLimit, deadline);
+        lastDepth = main.getCompletedDepth();
+        lastNodes = main.getNodes();
+        for (AlphaBetaSearch helper : helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            int move = join(helperMoves.get(i));
+            lastNodes += helpers[i].getNodes();
+            if (helpers[i].getCompletedDepth() > lastDepth) {
+                // A helper completed a deeper search than the main thread, trust it
+                lastDepth = helpers[i].getCompletedDepth();
+                bestMove = move;
+            }
+        }
+        lastElapsedNanos = System.nanoTime() - start;
+        return EngineMetrics.decided(this, toMove(bestMove, gameStatus), start, lastNodes, lastDepth);
+    }
+
+    /**
+     * This function's purpose is to play the boards other than 8x8, which the bitboard search cannot hold,
+     * with the move of GreedyAI.
+     */
+    private Move playGreedily(PlayableLogic gameStatus) {
+        int size = gameStatus.getBoardSize();
+        if (fallback == null || fallback.getBoardSize() != size) {
+            fallback = new MoveAnalysis(size);
+        }
+        return GreedyAI.greedyMove(gameStatus, fallback, this);
+    }
+
+    private Move toMove(int move, PlayableLogic gameStatus) {
+        int square = TypedMoves.cell(move);
+        Position position = new Position(square / gameStatus.getBoardSize(), square % gameStatus.getBoardSize());
+        return new Move(position, DiscType.newDisc(TypedMoves.type(move), this));
+    }
+
+    private static int join(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search thread failed", e.getCause());
+        }
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of threads searching each move, the calling thread included.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed");
+        }
+        this.threads = threads;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Set the deepest depth searched, the search stops there even if time is left.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    /**
+     * Set the number of empty cells from which the endgame is solved exactly, 0 never solves it.
+     */
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /**
+     * Tell whether the last call to makeMove solved the endgame exactly.
+     */
+    public boolean isLastMoveSolved() {
+        return lastSolved;
+    }
+
+    /**
+     * Get the deepest search depth completed by the last call to makeMove.
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Get the number of nodes visited by the last call to makeMove, over all the search threads.
+     */
+    public long getLastNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * Get the time spent by the last call to makeMove, in nanoseconds.
+     */
+    public long getLastElapsedNanos() {
+        return lastElapsedNanos;
+    }
+
+    /**
+     * Get the search speed of the last call to makeMove, in nodes per second.
+     */
+    public long getNodesPerSecond() {
+        return lastElapsedNanos == 0 ? 0 : lastNodes * 1_000_000_000L / lastElapsedNanos;
+    }
+}
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaAITest {
+
+    @Test
+    void playsTheSolvedMoveInTheEndgame() {
+        for (BitboardGameLogic position : EndgameBenchmark.createPositions(8, 4)) {
+            EndgameSolver solver = new EndgameSolver(BitboardGameLogic.copyOf(position), new TranspositionTable(1));
+            int solved = solver.solve(Long.MAX_VALUE);
+            assertTrue(solved >= 0);
+
+            AlphaBetaAI ai = new AlphaBetaAI(position.isFirstPlayerTurn(), 10_000);
+            Move move = ai.makeMove(position);
+            assertTrue(ai.isLastMoveSolved(), "An 8 empties position should be handed to the endgame solver.");
+            assertEquals(8, ai.getLastDepth());
+            int square = move.position().row() * 8 + move.position().col();
+            int type = DiscType.of(move.disc());
+            if (square == TypedMoves.cell(solved) && type == TypedMoves.type(solved)) {
+                continue;
+            }
+            // Another move is only acceptable when it reaches the same exact score
+            BitboardGameLogic after = BitboardGameLogic.copyOf(position);
+            assertTrue(after.play(square, type), "The AI should play a legal move.");
+            EndgameSolver reply = new EndgameSolver(after, new TranspositionTable(1));
+            reply.solve(Long.MAX_VALUE);
+            assertEquals(solver.getScore(), -reply.getScore(), "The AI should play a move of the solved score.");
+        }
+    }
+
+    @Test
+    void searchesWithoutTheSolverAboveTheEndgame() {
+        BitboardGameLogic position = EndgameBenchmark.createPositions(20, 1)[0];
+        AlphaBetaAI ai = new AlphaBetaAI(position.isFirstPlayerTurn(), 100);
+        Move move = ai.makeMove(position);
+        assertFalse(ai.isLastMoveSolved());
+        assertTrue(ai.getLastDepth() > 0 && ai.getLastNodes() > 0);
+        int square = move.position().row() * 8 + move.position().col();
+        assertTrue(BitboardGameLogic.copyOf(position).play(square, DiscType.of(move.disc())), "The AI should play a legal move.");
+    }
+
+    @Test
+    void playsOtherBoardSizesLikeGreedyAI() {
+        for (int size : new int[]{6, 10}) {
+            AlphaBetaAI first = new AlphaBetaAI(true, 10);
+            AlphaBetaAI second = new AlphaBetaAI(false, 10);
+            GreedyAI greedy = new GreedyAI(true);
+            GameLogic game = new GameLogic(size);
+            game.setPlayers(first, second);
+            while (!game.ValidMoves().isEmpty()) {
+                AlphaBetaAI mover = game.isFirstPlayerTurn() ? first : second;
+                Move move = mover.makeMove(game);
+                Move expected = greedy.makeMove(game);
+                assertEquals(expected.position(), move.position(), "The AI should play the greedy move on a " + size + "x" + size + " board.");
+                assertSame(mover, move.disc().get_owner());
+                assertTrue(game.locate_disc(move.position(), move.disc()));
+            }
+            assertNull((game.isFirstPlayerTurn() ? first : second).makeMove(game), "A finished game has no move.");
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * This class runs a negamax search with alpha-beta pruning on a private BitboardGameLogic.
+ * Moves are made with play and taken back with undoLastMove, and every (cell, disc type) pair
+ * the player to move can afford is a candidate, so bomb and unflippable placements are searched too.
+ * The search stops as soon as its deadline passes, in which case the running iteration is discarded.
+ * Results are kept in a transposition table keyed by the board's Zobrist hash, whose best moves are tried first.
+ * Several searches may share one table from different threads, each on its own copy of the board;
+ * stop() may be called from any thread.
+ * Positions are estimated with the trained PatternEvaluator when its weights file is found,
+ * with the classic square weights otherwise.
+ */
+class AlphaBetaSearch {
+    static final int WIN_SCORE = 1_000_000;
+    static final int INFINITY = 2 * WIN_SCORE;
+
+    // Classic positional weights: corners are good, the cells next to them are dangerous
+    private static final int[] SQUARE_WEIGHTS = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100
+    };
+    private static final int UNFLIPPABLE_BONUS = 20;
+
+    // Cells sorted by decreasing weight, used as a cheap move ordering
+    private static final int[] MOVE_ORDER = new int[64];
+
+    static {
+        Integer[] order = new Integer[64];
+        for (int i = 0; i < 64; i++) {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (a, b) -> SQUARE_WEIGHTS[b] - SQUARE_WEIGHTS[a]);
+        for (int i = 0; i < 64; i++) {
+            MOVE_ORDER[i] = order[i];
+        }
+    }
+
+    private final BitboardGameLogic board;
+    private final TranspositionTable table;
+    private final PatternEvaluator patterns = PatternEvaluator.shared(); // Null without a weights file
+    private final int[] rootMoves = new int[64 * DiscType.COUNT];
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopped;
+    private long nodes;
+    private int completedDepth;
+
+    AlphaBetaSearch(BitboardGameLogic board, TranspositionTable table) {
+        this.board = board;
+        this.table = table;
+    }
+
+    /**
+     * This function's purpose is to deepen the search one ply at a time until the deadline passes,
+     * the search is stopped or maxDepth is completed.
+     * @param startDepth , the first depth searched
+     * @param maxDepth , the last depth searched
+     * @param deadline , the System.nanoTime() value at which the search must stop
+     * @return the best move of the last completed depth, or a legal simple move if no depth was completed.
+     */
+    int iterate(int startDepth, int maxDepth, long deadline) {
+        long legal = board.validMovesMask();
+        int bestMove = TypedMoves.encode(Long.numberOfTrailingZeros(legal), DiscType.SIMPLE);
+        completedDepth = 0;
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            int move = searchRoot(depth, bestMove, deadline);
+            if (aborted || move < 0) {
+                break; // Out of time, keep the move of the last completed depth
+            }
+            bestMove = move;
+            completedDepth = depth;
+        }
+        return bestMove;
+    }
+
+    /**
+     * This function's purpose is to search the position to a fixed depth and return the best root move.
+     * @param depth , the number of plies to search
+     * @param firstMove , a move searched before the others (the best move of the previous depth), or -1
+     * @param deadline , the System.nanoTime() value at which the search must stop
+     * @return the best move (see TypedMoves.encode), or -1 if the search was aborted or there is no move.
+     */
+    int searchRoot(int depth, int firstMove, long deadline) {
+        this.deadline = deadline;
+        this.aborted = false;
+        int[] moves = rootMoves;
+        int count = 0;
+        if (firstMove >= 0) {
+            moves[count++] = firstMove;
+        }
+        long legal = board.validMovesMask();
+        int types = affordableTypes();
+        for (int square : MOVE_ORDER) {
+            if ((legal & 1L << square) == 0) {
+                continue;
+            }
+            for (int type = 0; type < DiscType.COUNT; type++) {
+                int move = TypedMoves.encode(square, type);
+                if ((types & 1 << type) != 0 && move != firstMove) {
+                    moves[count++] = move;
+                }
+            }
+        }
+
+        int bestMove = -1;
+        int alpha = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (!board.play(TypedMoves.cell(move), TypedMoves.type(move))) {
+                continue; // The first move is not affordable any more
+            }
+            nodes++;
+            int score = -negamax(depth - 1, -INFINITY, -alpha);
+            board.undoLastMove();
+            if (aborted) {
+                return -1;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    private int negamax(int depth, int alpha, int beta) {
+        if ((nodes & 1023) == 0 && (stopped || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        long legal = board.validMovesMask();
+        if (legal == 0) {
+            return finalScore(); // The player to move is stuck, so the game is over
+        }
+        if (depth == 0) {
+            return evaluate();
+        }
+
+        long key = board.getZobristHash();
+        long entry = table.probe(key);
+        int tableMove = -1;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+        if (tableMove >= 0 && board.play(TypedMoves.cell(tableMove), TypedMoves.type(tableMove))) {
+            nodes++;
+            best = -negamax(depth - 1, -beta, -alpha);
+            board.undoLastMove();
+            if (aborted) {
+                return 0;
+            }
+            bestMove = tableMove;
+            alpha = Math.max(alpha, best);
+        }
+        int types = affordableTypes();
+        for (int i = 0; i < MOVE_ORDER.length && alpha < beta; i++) {
+            int square = MOVE_ORDER[i];
+            if ((legal & 1L << square) == 0) {
+                continue;
+            }
+            for (int type = 0; type < DiscType.COUNT && alpha < beta; type++) {
+                int move = TypedMoves.encode(square, type);
+                if ((types & 1 << type) == 0 || move == tableMove) {
+                    continue;
+                }
+                board.play(square, type);
+                nodes++;
+                int score = -negamax(depth - 1, -beta, -alpha);
+                board.undoLastMove();
+                if (aborted) {
+                    return 0;
+                }
+                if (score > best) {
+                    best = score;
+                    bestMove = move;
+                    alpha = Math.max(alpha, score);
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, depth, best, bound, bestMove);
+        return best;
+    }
+
+    /**
+     * This function's purpose is to return the disc types the player to move can afford, one bit per DiscType
+     * code, so that the unaffordable special placements are skipped without trying them on the board.
+     */
+    private int affordableTypes() {
+        boolean first = board.isFirstPlayerTurn();
+        return 1 << DiscType.SIMPLE | (board.getBombsLeft(first) > 0 ? 1 << DiscType.BOMB : 0)
+                | (board.getUnflippablesLeft(first) > 0 ? 1 << DiscType.UNFLIPPABLE : 0);
+    }
+
+    /**
+     * This function's purpose is to score a finished game from the point of view of the player to move.
+     */
+    private int finalScore() {
+        boolean first = board.isFirstPlayerTurn();
+        int diff = Long.bitCount(board.getDiscMask(first)) - Long.bitCount(board.getDiscMask(!first));
+        if (diff > 0) {
+            return WIN_SCORE + diff;
+        }
+        if (diff < 0) {
+            return -WIN_SCORE + diff;
+        }
+        return 0;
+    }
+
+    /**
+     * This function's purpose is to estimate a position from the point of view of the player to move.
+     */
+    int evaluate() {
+        if (patterns != null) {
+            return patterns.evaluate(board);
+        }
+        boolean first = board.isFirstPlayerTurn();
+        long own = board.getDiscMask(first);
+        long opp = board.getDiscMask(!first);
+        int score = 0;
+        for (long cells = own; cells != 0; cells &= cells - 1) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(cells)];
+        }
+        for (long cells = opp; cells != 0; cells &= cells - 1) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(cells)];
+        }
+        long unflippables = board.getUnflippableMask();
+        score += UNFLIPPABLE_BONUS * (Long.bitCount(own & unflippables) - Long.bitCount(opp & unflippables));
+        return score;
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Ask the search to give up as soon as possible. The running iteration is discarded.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Get the deepest depth completed by the last call to iterate.
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+}
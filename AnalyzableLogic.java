@@ -0,0 +1,193 @@
+import java.util.List;
+
+/**
+ * The AnalyzableLogic interface adds to PlayableLogic what the engines, the AIs and the tools ask of a game
+ * beyond the GUI contract: the events of the game, the flips of every legal move in one call, the typed moves
+ * of the player to move and the disc counts.
+ * Every method has a default implementation on top of PlayableLogic, and any PlayableLogic can be viewed
+ * as an AnalyzableLogic through {@link #of(PlayableLogic)}.
+ */
+public interface AnalyzableLogic extends PlayableLogic {
+
+    /**
+     * This function's purpose is to view a game as an AnalyzableLogic.
+     * @param game , the game
+     * @return the game itself when it is an AnalyzableLogic, otherwise a view of it using the default implementations.
+     */
+    static AnalyzableLogic of(PlayableLogic game) {
+        return game instanceof AnalyzableLogic ? (AnalyzableLogic) game : new View(game);
+    }
+
+    /**
+     * Set the listener receiving the events of the game: placed and flipped discs, exploded bombs,
+     * undone moves and the end of the game. Games which report no event ignore it.
+     *
+     * @param listener The listener, or null to stop reporting events.
+     */
+    default void setGameEventListener(GameEventListener listener) {
+    }
+
+    /**
+     * Analyze every legal move of the player to move in one call, see MoveAnalysis.
+     * This default implementation asks ValidMoves and countFlips, and cannot tell which flips come from bombs.
+     *
+     * @param analysis The analysis to fill, made for the size of this board.
+     */
+    default void analyzeMoves(MoveAnalysis analysis) {
+        int size = getBoardSize();
+        int mover = 0;
+        int opponent = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                Disc disc = getDiscAtPosition(new Position(row, col));
+                if (disc != null) {
+                    if (disc.get_owner().isPlayerOne() == isFirstPlayerTurn()) {
+                        mover++;
+                    } else {
+                        opponent++;
+                    }
+                }
+            }
+        }
+        analysis.clear();
+        for (Position move : ValidMoves()) {
+            int flips = countFlips(move);
+            analysis.add(move.row() * size + move.col(), flips, 0, mover + 1 + flips - (opponent - flips));
+        }
+    }
+
+    /**
+     * Generate every move of the player to move with its disc type, see TypedMoves: each legal cell with a simple
+     * disc, and with a bomb or an unflippable disc while the player has some left.
+     * This default implementation asks ValidMoves and the inventory of the player.
+     *
+     * @param moves The moves to fill, made for the size of this board.
+     */
+    default void generateTypedMoves(TypedMoves moves) {
+        Player mover = isFirstPlayerTurn() ? getFirstPlayer() : getSecondPlayer();
+        boolean bombs = mover.getNumber_of_bombs() > 0;
+        boolean unflippables = mover.getNumber_of_unflippedable() > 0;
+        int size = getBoardSize();
+        moves.clear();
+        for (Position move : ValidMoves()) {
+            moves.add(move.row() * size + move.col(), bombs, unflippables);
+        }
+    }
+
+    /**
+     * Get the number of discs a player has on the board.
+     * This default implementation counts them on the whole board.
+     *
+     * @param firstPlayer true for the first player's discs, false for the second player's.
+     * @return The number of discs of the player.
+     */
+    default int getDiscCount(boolean firstPlayer) {
+        int count = 0;
+        for (int type = 0; type < DiscType.COUNT; type++) {
+            count += getDiscCount(firstPlayer, type);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of discs of one type a player has on the board.
+     * This default implementation counts them on the whole board.
+     *
+     * @param firstPlayer true for the first player's discs, false for the second player's.
+     * @param type The DiscType code of the discs.
+     * @return The number of discs of that type of the player.
+     */
+    default int getDiscCount(boolean firstPlayer, int type) {
+        int count = 0;
+        for (int row = 0; row < getBoardSize(); row++) {
+            for (int col = 0; col < getBoardSize(); col++) {
+                Disc disc = getDiscAtPosition(Position.of(row, col));
+                if (disc != null && disc.get_owner().isPlayerOne() == firstPlayer && DiscType.of(disc) == type) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of empty cells of the board.
+     *
+     * @return The number of cells without a disc.
+     */
+    default int getEmptyCellCount() {
+        return getBoardSize() * getBoardSize() - getDiscCount(true) - getDiscCount(false);
+    }
+
+    /**
+     * A PlayableLogic seen as an AnalyzableLogic: every call goes to the game, the added methods use the
+     * default implementations.
+     */
+    final class View implements AnalyzableLogic {
+        private final PlayableLogic game;
+
+        private View(PlayableLogic game) {
+            this.game = game;
+        }
+
+        @Override
+        public boolean locate_disc(Position a, Disc disc) {
+            return game.locate_disc(a, disc);
+        }
+
+        @Override
+        public Disc getDiscAtPosition(Position position) {
+            return game.getDiscAtPosition(position);
+        }
+
+        @Override
+        public int getBoardSize() {
+            return game.getBoardSize();
+        }
+
+        @Override
+        public List<Position> ValidMoves() {
+            return game.ValidMoves();
+        }
+
+        @Override
+        public int countFlips(Position a) {
+            return game.countFlips(a);
+        }
+
+        @Override
+        public Player getFirstPlayer() {
+            return game.getFirstPlayer();
+        }
+
+        @Override
+        public Player getSecondPlayer() {
+            return game.getSecondPlayer();
+        }
+
+        @Override
+        public void setPlayers(Player player1, Player player2) {
+            game.setPlayers(player1, player2);
+        }
+
+        @Override
+        public boolean isFirstPlayerTurn() {
+            return game.isFirstPlayerTurn();
+        }
+
+        @Override
+        public boolean isGameFinished() {
+            return game.isGameFinished();
+        }
+
+        @Override
+        public void reset() {
+            game.reset();
+        }
+
+        @Override
+        public void undoLastMove() {
+            game.undoLastMove();
+        }
+    }
+}
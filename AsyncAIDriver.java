@@ -0,0 +1,199 @@
+import javax.swing.SwingUtilities;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the makeMove of an AI player on a background thread, so that an AI which thinks for long does not
+ * freeze the Swing event thread. The AI is asked about a private snapshot of the position (a BitboardGameLogic
+ * copy), so the game may be read and painted while the AI thinks.
+ * <p>
+ * While the opponent thinks the driver ponders: ponder(game) asks the AI about the positions after every reply
+ * of the opponent, the replies flipping the most discs first. When the opponent plays one of them, requestMove
+ * answers with the pondered move, at once if it is ready (a ponder hit). Any other position drops the pondering.
+ * <p>
+ * The AI runs on a single thread, since AI players keep state between their moves. cancel() drops the request
+ * and the pondering, their results are never delivered; a makeMove which already started still runs to the end
+ * of its time budget before the next one starts. Games of other sizes than 8x8 cannot be copied to a bitboard,
+ * their moves are computed on the calling thread and they are not pondered.
+ * <p>
+ * The methods are meant to be called from one thread, the Swing event thread in the GUI.
+ */
+public class AsyncAIDriver implements AutoCloseable {
+    private final AIPlayer ai;
+    private final ExecutorService executor;
+    private final AtomicInteger generation = new AtomicInteger(); // Increased to drop the queued work
+    // The moves being pondered, by the Zobrist hash of the position after the opponent's reply
+    private final Map<Long, CompletableFuture<Move>> pondering = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Move> wanted; // The pondered move asked by requestMove, the others are skipped
+    private CompletableFuture<Move> request;
+    private long ponderHits;
+    private long ponderMisses;
+
+    public AsyncAIDriver(AIPlayer ai) {
+        this.ai = ai;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "ai-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the key requestMove and ponder know a position by: its Zobrist hash, 0 for the boards other than 8x8.
+     */
+    public static long positionKey(PlayableLogic game) {
+        return isSnapshotable(game) ? BitboardGameLogic.copyOf(game).getZobristHash() : 0;
+    }
+
+    private static boolean isSnapshotable(PlayableLogic game) {
+        return game.getBoardSize() == 8;
+    }
+
+    /**
+     * This function's purpose is to ask the AI for its move in the current position of a game.
+     * The future completes on the AI thread, it is cancelled by cancel().
+     * @param game , the game, the player to move is the AI's side
+     */
+    public CompletableFuture<Move> requestMove(PlayableLogic game) {
+        if (!isSnapshotable(game)) {
+            return CompletableFuture.completedFuture(ai.makeMove(game));
+        }
+        BitboardGameLogic position = BitboardGameLogic.copyOf(game);
+        CompletableFuture<Move> pondered = pondering.get(position.getZobristHash());
+        if (pondered != null && !pondered.isCancelled()) {
+            ponderHits++;
+            wanted = pondered; // The pondering of the other replies is skipped
+            request = pondered;
+            return pondered;
+        }
+        if (!pondering.isEmpty()) {
+            ponderMisses++;
+        }
+        dropPondering();
+        CompletableFuture<Move> move = new CompletableFuture<>();
+        int current = generation.get();
+        executor.execute(() -> think(move, position, current));
+        request = move;
+        return move;
+    }
+
+    /**
+     * This function's purpose is to ask the AI for its move and to deliver it on the Swing event thread,
+     * unless the request is cancelled first.
+     * @param onMove , receives the move, or null when the AI has no move
+     */
+    public void requestMove(PlayableLogic game, Consumer<Move> onMove) {
+        CompletableFuture<Move> move = requestMove(game);
+        int current = generation.get();
+        move.thenAccept(result -> SwingUtilities.invokeLater(() -> {
+            if (generation.get() == current) {
+                onMove.accept(result);
+            }
+        }));
+    }
+
+    /**
+     * This function's purpose is to think about the AI's replies while the opponent is to move.
+     * Every earlier pondering is dropped, moves with special discs are not pondered.
+     * @param game , the game, the player to move is the AI's opponent
+     */
+    public void ponder(PlayableLogic game) {
+        dropPondering();
+        if (!isSnapshotable(game)) {
+            return;
+        }
+        BitboardGameLogic position = BitboardGameLogic.copyOf(game);
+        MoveAnalysis analysis = new MoveAnalysis(8);
+        position.analyzeMoves(analysis);
+        int[] replies = new int[analysis.getMoveCount()];
+        for (int i = 0; i < replies.length; i++) {
+            // Sorted by flips, the cell in the low bits makes the order stable
+            int cell = analysis.getMove(i);
+            replies[i] = analysis.getFlips(cell) << 6 | 63 - cell;
+        }
+        Arrays.sort(replies);
+        int current = generation.get();
+        for (int i = replies.length - 1; i >= 0; i--) { // The replies flipping the most discs first
+            int cell = 63 - (replies[i] & 63);
+            BitboardGameLogic next = BitboardGameLogic.copyOf(position);
+            next.play(cell, DiscType.SIMPLE);
+            if (next.validMovesMask() == 0) {
+                continue; // The reply ends the game
+            }
+            CompletableFuture<Move> move = new CompletableFuture<>();
+            pondering.put(next.getZobristHash(), move);
+            executor.execute(() -> {
+                CompletableFuture<Move> asked = wanted;
+                if (asked != null && asked != move) {
+                    move.cancel(false);
+                    return;
+                }
+                think(move, next, current);
+            });
+        }
+    }
+
+    private void think(CompletableFuture<Move> move, BitboardGameLogic position, int expectedGeneration) {
+        if (move.isDone() || generation.get() != expectedGeneration) {
+            move.cancel(false);
+            return;
+        }
+        try {
+            move.complete(ai.makeMove(position));
+        } catch (RuntimeException e) {
+            move.completeExceptionally(e);
+        }
+    }
+
+    private void dropPondering() {
+        generation.incrementAndGet();
+        for (CompletableFuture<Move> move : pondering.values()) {
+            if (move != wanted) {
+                move.cancel(false);
+            }
+        }
+        pondering.clear();
+        wanted = null;
+    }
+
+    /**
+     * Drop the pending request and the pondering, for example when the game is reset.
+     */
+    public void cancel() {
+        dropPondering();
+        if (request != null) {
+            request.cancel(false);
+            request = null;
+        }
+    }
+
+    public AIPlayer getAI() {
+        return ai;
+    }
+
+    /**
+     * Get the number of requests answered by the pondering.
+     */
+    public long getPonderHits() {
+        return ponderHits;
+    }
+
+    /**
+     * Get the number of requests made after a pondering which did not cover their position.
+     */
+    public long getPonderMisses() {
+        return ponderMisses;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAIDriverTest {
+
+    @Test
+    void answersFromThePondering() {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        try (AsyncAIDriver driver = new AsyncAIDriver(new GreedyAI(false))) {
+            driver.ponder(game);
+            List<Position> moves = game.ValidMoves();
+            assertTrue(game.locate_disc(moves.get(moves.size() - 1), new SimpleDisc(game.getFirstPlayer())));
+            Move pondered = driver.requestMove(game).join();
+            assertEquals(1, driver.getPonderHits());
+            assertEquals(new GreedyAI(false).makeMove(game).position(), pondered.position());
+
+            // A position which was not pondered is computed on request
+            assertTrue(game.locate_disc(pondered.position(), new SimpleDisc(game.getSecondPlayer())));
+            moves = game.ValidMoves();
+            assertTrue(game.locate_disc(moves.get(0), new BombDisc(game.getFirstPlayer())));
+            Move computed = driver.requestMove(game).join();
+            assertEquals(1, driver.getPonderHits());
+            assertEquals(new GreedyAI(false).makeMove(game).position(), computed.position());
+        }
+    }
+
+    @Test
+    void cancelDropsTheRequest() {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        try (AsyncAIDriver driver = new AsyncAIDriver(new AlphaBetaAI(true, 200))) {
+            CompletableFuture<Move> request = driver.requestMove(game);
+            driver.cancel();
+            assertTrue(request.isCancelled());
+            assertNotNull(driver.requestMove(game).join(), "The driver should answer again after a cancel.");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.SecondaryLoop;
+import java.awt.Toolkit;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An AI player which lets another AI player think on a background thread through an AsyncAIDriver.
+ * The GUI asks for the AI's moves on the Swing event thread and waits for the answer, so makeMove waits in a
+ * secondary event loop: the window keeps painting and answering the user while the AI thinks.
+ * The GUI's timer keeps firing in the secondary event loop and calls makeMove again: such a call waits for the
+ * request in flight instead of asking the AI again, and the calls all answer with its move. The first answer
+ * is played, the game refuses the others since their cell is taken.
+ * When the position changes during the wait (the game was reset or a move undone), the request is cancelled and
+ * the AI is asked about the current position; a call made when the AI is not to move waits until it is.
+ * So makeMove only answers null when the AI has no legal move, the GUI uses the answer without checking it.
+ * After every move the AI ponders the replies of a human opponent, see AsyncAIDriver.ponder.
+ * <p>
+ * This player is the one the game knows: the special discs are taken from its inventory and its discs are
+ * given to it, the wrapped AI only chooses the moves.
+ */
+public class AsyncAIPlayer extends AIPlayer {
+    private static final int POLL_MILLIS = 50; // How often a wait checks the position of the game
+
+    private final AsyncAIDriver driver;
+    private CompletableFuture<Move> inFlight; // The request makeMove is waiting for, null when none
+    private long inFlightKey; // The position of the game inFlight was asked in
+
+    public AsyncAIPlayer(AIPlayer ai) {
+        super(ai.isPlayerOne());
+        this.driver = new AsyncAIDriver(ai);
+    }
+
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        while (true) {
+            if (gameStatus.isFirstPlayerTurn() != isPlayerOne() && !awaitTurn(gameStatus)) {
+                return null; // The game is over
+            }
+            long key = AsyncAIDriver.positionKey(gameStatus);
+            CompletableFuture<Move> request = inFlight;
+            boolean asked = request == null || inFlightKey != key;
+            if (asked) {
+                request = driver.requestMove(gameStatus);
+                inFlight = request;
+                inFlightKey = key;
+            } // Otherwise called again from the secondary event loop of the call waiting for this position
+            Move move;
+            try {
+                move = await(request, gameStatus, key);
+            } finally {
+                if (asked && inFlight == request) {
+                    inFlight = null;
+                }
+            }
+            if (AsyncAIDriver.positionKey(gameStatus) == key) {
+                if (move != null || !request.isCancelled()) {
+                    return answer(gameStatus, key, move); // null when the AI has no legal move
+                }
+                continue; // Dropped by cancel(), ask again
+            }
+            if (move != null && gameStatus.isFirstPlayerTurn() != isPlayerOne()
+                    && gameStatus.getDiscAtPosition(move.position()) != null) {
+                // A reentered call played the move meanwhile, the game refuses this answer since its cell is taken
+                return answer(gameStatus, key, move);
+            }
+            // The game changed while the AI was thinking, ask about the current position
+        }
+    }
+
+    /**
+     * This function's purpose is to give the move of the AI to this player, and to ponder the opponent's
+     * replies when the position is still the one the move was asked in.
+     * @return the move with a disc of this player, or null when the AI has no move.
+     */
+    private Move answer(PlayableLogic gameStatus, long key, Move move) {
+        if (move == null) {
+            return null;
+        }
+        Move own = new Move(move.position(), DiscType.newDisc(DiscType.of(move.disc()), this));
+        if (AsyncAIDriver.positionKey(gameStatus) == key) {
+            ponderAfter(gameStatus, own);
+        }
+        return own;
+    }
+
+    private Move await(CompletableFuture<Move> request, PlayableLogic game, long key) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            // The request is cancelled when the position changes, every waiter then asks about the new position
+            pumpEventsUntil(request, () -> {
+                if (AsyncAIDriver.positionKey(game) != key) {
+                    request.cancel(false);
+                }
+            });
+        }
+        try {
+            return request.join();
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This function's purpose is to wait until the AI is to move, for a call left behind by a change of the game.
+     * @return true when the AI is to move, false when the game is over.
+     */
+    private boolean awaitTurn(PlayableLogic game) {
+        CompletableFuture<Boolean> turn = new CompletableFuture<>();
+        Runnable check = () -> {
+            if (game.isFirstPlayerTurn() == isPlayerOne()) {
+                turn.complete(true);
+            } else if (game.isGameFinished()) {
+                turn.complete(false);
+            }
+        };
+        check.run();
+        if (SwingUtilities.isEventDispatchThread()) {
+            pumpEventsUntil(turn, check);
+        }
+        while (!turn.isDone()) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            check.run();
+        }
+        return turn.join();
+    }
+
+    /**
+     * This function's purpose is to wait on the Swing event thread without blocking the events, in a secondary
+     * event loop which is left once the future completes.
+     * @param check , run by a timer every POLL_MILLIS meanwhile
+     */
+    private static void pumpEventsUntil(CompletableFuture<?> done, Runnable check) {
+        if (done.isDone()) {
+            return;
+        }
+        SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+        // The loop is left from the event thread, so it is never left before it is entered
+        done.whenComplete((result, failure) -> SwingUtilities.invokeLater(loop::exit));
+        Timer watch = new Timer(POLL_MILLIS, e -> check.run());
+        watch.start();
+        try {
+            loop.enter();
+        } finally {
+            watch.stop();
+        }
+    }
+
+    private void ponderAfter(PlayableLogic gameStatus, Move move) {
+        Player opponent = isPlayerOne() ? gameStatus.getSecondPlayer() : gameStatus.getFirstPlayer();
+        if (!opponent.isHuman() || gameStatus.getBoardSize() != 8) {
+            return;
+        }
+        BitboardGameLogic position = BitboardGameLogic.copyOf(gameStatus);
+        Position cell = move.position();
+        if (position.play(cell.row() * 8 + cell.col(), DiscType.of(move.disc()))) {
+            driver.ponder(position);
+        }
+    }
+
+    /**
+     * Drop the move being computed and the pondering.
+     */
+    public void cancel() {
+        driver.cancel();
+    }
+
+    public AIPlayer getAI() {
+        return driver.getAI();
+    }
+
+    public AsyncAIDriver getDriver() {
+        return driver;
+    }
+}
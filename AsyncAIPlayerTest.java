@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAIPlayerTest {
+
+    /**
+     * A GreedyAI which thinks slowly and counts its moves.
+     */
+    static class SlowGreedyAI extends GreedyAI {
+        final AtomicInteger moves = new AtomicInteger();
+
+        SlowGreedyAI(boolean isPlayerOne) {
+            super(isPlayerOne);
+        }
+
+        @Override
+        public Move makeMove(PlayableLogic gameStatus) {
+            moves.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.makeMove(gameStatus);
+        }
+    }
+
+    @Test
+    void reenteredCallsWaitForTheSameRequest() throws Exception {
+        SlowGreedyAI ai = new SlowGreedyAI(true);
+        AsyncAIPlayer player = new AsyncAIPlayer(ai);
+        GameLogic game = new GameLogic();
+        game.setPlayers(player, new GreedyAI(false)); // An AI opponent, so no reply is pondered
+        Move[] moves = new Move[2];
+        SwingUtilities.invokeAndWait(() -> {
+            // Like the GUI's timer firing again while the first call waits in its secondary event loop
+            SwingUtilities.invokeLater(() -> moves[1] = player.makeMove(game));
+            moves[0] = player.makeMove(game);
+        });
+        SwingUtilities.invokeAndWait(() -> { }); // Let the reentered call finish
+        assertEquals(1, ai.moves.get(), "The AI should be asked once for one position.");
+        Position expected = new GreedyAI(true).makeMove(game).position();
+        for (Move move : moves) {
+            assertNotNull(move);
+            assertEquals(expected, move.position());
+            assertSame(player, move.disc().get_owner());
+        }
+        assertTrue(game.locate_disc(moves[0].position(), moves[0].disc()));
+        assertFalse(game.locate_disc(moves[1].position(), moves[1].disc()), "The second answer should be refused.");
+        player.getDriver().close();
+    }
+
+    @Test
+    void answersTheCurrentPositionAfterAnUndo() throws Exception {
+        SlowGreedyAI ai = new SlowGreedyAI(false);
+        AsyncAIPlayer player = new AsyncAIPlayer(ai);
+        GameLogic game = new GameLogic();
+        HumanPlayer human = new HumanPlayer(true);
+        game.setPlayers(human, player);
+        game.locate_disc(game.ValidMoves().get(0), new SimpleDisc(human));
+        boolean[] played = new boolean[1];
+        SwingUtilities.invokeAndWait(() -> {
+            // Undo is pressed while the AI thinks, then the human plays another move
+            SwingUtilities.invokeLater(() -> {
+                game.undoLastMove();
+                Timer reply = new Timer(100, e -> game.locate_disc(game.ValidMoves().get(1), new SimpleDisc(human)));
+                reply.setRepeats(false);
+                reply.start();
+            });
+            // Like the GUI's timer, which plays the answer without checking it
+            Move move = player.makeMove(game);
+            played[0] = game.locate_disc(move.position(), move.disc());
+        });
+        assertTrue(played[0], "The answer should be a legal move of the current position.");
+        assertTrue(ai.moves.get() >= 2, "The AI should be asked again about the current position.");
+        assertTrue(game.isFirstPlayerTurn());
+        player.getDriver().close();
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the events of games to a file on a background thread.
+ * Each event is packed into a long and put in a ring buffer, so that the game thread neither formats
+ * nor writes anything; the writer thread takes the events in batches and prints them in the console format
+ * of ConsoleGameEventListener. Several games may share one logger, each through its own listener (see forGame):
+ * the events carry the game id, and a "Game N:" line is printed whenever the events switch to another game.
+ * When the ring buffer is full, the games wait for the writer to catch up, so no event is lost before close:
+ * close writes every event which was given a slot, and the events fired after it are dropped without one.
+ */
+public class AsyncGameEventLogger implements AutoCloseable {
+    private static final int MAX_GAME_ID = 0xFFFF;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final long CLOSED = Long.MIN_VALUE; // The bit of claimed set by close
+
+    // Event codes, in the 4 lowest bits of a packed event
+    private static final int PLACED = 0;
+    private static final int FLIPPED = 1;
+    private static final int EXPLODED = 2;
+    private static final int COMPLETED = 3;
+    private static final int REJECTED = 4;
+    private static final int UNDONE = 5;
+    private static final int FLIPPED_BACK = 6;
+    private static final int UNDO_COMPLETED = 7;
+    private static final int UNDO_REJECTED = 8;
+    private static final int FINISHED = 9;
+
+    private final long[] events;
+    private final AtomicLongArray published; // Sequence number + 1 of the event held by each slot, once written
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(); // Next sequence number given to a producer, and CLOSED
+    private final LongAdder eventCount = new LongAdder(); // Events put in the ring buffer
+    private volatile long consumed; // Next sequence number the writer will take
+    private final PrintStream out;
+    private final ConsoleGameEventListener printer;
+    private final Thread writer;
+
+    public AsyncGameEventLogger(String fileName) throws IOException {
+        this(fileName, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param fileName , the file the events are written to, it is overwritten
+     * @param capacity , the number of events the ring buffer holds, a power of two
+     */
+    public AsyncGameEventLogger(String fileName, int capacity) throws IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two");
+        }
+        events = new long[capacity];
+        published = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        out = new PrintStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16), false, StandardCharsets.UTF_8);
+        printer = new ConsoleGameEventListener(out);
+        writer = new Thread(this::drain, "game-event-logger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * This function's purpose is to create the listener of one game, whose events are written with its id.
+     * @param gameId , the id of the game, from 0 to 65535
+     */
+    public GameEventListener forGame(int gameId) {
+        if (gameId < 0 || gameId > MAX_GAME_ID) {
+            throw new IllegalArgumentException("The game id must be between 0 and " + MAX_GAME_ID);
+        }
+        return new GameListener(gameId);
+    }
+
+    /**
+     * The listener of one game, it adds the game id to every event it publishes.
+     */
+    private final class GameListener implements GameEventListener {
+        private final long game; // The game id, in the bits of the packed event
+
+        GameListener(int gameId) {
+            game = (long) gameId << 48;
+        }
+
+        @Override
+        public void discPlaced(boolean firstPlayer, int type, int row, int col) {
+            publish(game | pack(PLACED, firstPlayer, type, row, col, 0));
+        }
+
+        @Override
+        public void discFlipped(boolean firstPlayer, int type, int row, int col) {
+            publish(game | pack(FLIPPED, firstPlayer, type, row, col, 0));
+        }
+
+        @Override
+        public void bombExploded(boolean firstPlayer, int row, int col) {
+            publish(game | pack(EXPLODED, firstPlayer, DiscType.BOMB, row, col, 0));
+        }
+
+        @Override
+        public void moveCompleted(boolean firstPlayer) {
+            publish(game | pack(COMPLETED, firstPlayer, 0, 0, 0, 0));
+        }
+
+        @Override
+        public void moveRejected(boolean firstPlayer, int type, int row, int col, int reason) {
+            publish(game | pack(REJECTED, firstPlayer, type, row, col, reason));
+        }
+
+        @Override
+        public void moveUndone(boolean firstPlayer, int type, int row, int col) {
+            publish(game | pack(UNDONE, firstPlayer, type, row, col, 0));
+        }
+
+        @Override
+        public void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+            publish(game | pack(FLIPPED_BACK, firstPlayer, type, row, col, 0));
+        }
+
+        @Override
+        public void undoCompleted() {
+            publish(game | pack(UNDO_COMPLETED, false, 0, 0, 0, 0));
+        }
+
+        @Override
+        public void undoRejected() {
+            publish(game | pack(UNDO_REJECTED, false, 0, 0, 0, 0));
+        }
+
+        @Override
+        public void gameFinished(int winner, int firstPlayerDiscs, int secondPlayerDiscs) {
+            publish(game | pack(FINISHED, false, 0, firstPlayerDiscs, secondPlayerDiscs, winner));
+        }
+    }
+
+    /**
+     * Bits 0-3 hold the event code, bit 4 the first player flag, bits 5-6 the disc type,
+     * bits 8-23 the row, bits 24-39 the column, bits 40-47 the reason or the winner and bits 48-63 the game id
+     * (added by the listener of the game).
+     * The game finished event keeps the disc counts in the row and column fields.
+     */
+    private static long pack(int event, boolean firstPlayer, int type, int row, int col, int extra) {
+        return event | (firstPlayer ? 1L << 4 : 0) | (long) type << 5
+                | (long) (row & 0xFFFF) << 8 | (long) (col & 0xFFFF) << 24 | (long) (extra & 0xFF) << 40;
+    }
+
+    /**
+     * This function's purpose is to put an event in the ring buffer. Once the logger is closed no slot is given,
+     * so the events fired after close are dropped; an event given a slot before is always written.
+     */
+    private void publish(long event) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) {
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        while (sequence - consumed >= events.length) {
+            Thread.onSpinWait(); // The ring buffer is full, wait for the writer
+        }
+        int slot = (int) (sequence & mask);
+        events[slot] = event;
+        published.lazySet(slot, sequence + 1);
+        eventCount.increment();
+    }
+
+    /**
+     * The writer thread's loop: print every published event in order, flushing after each batch.
+     * Once the logger is closed it waits for the events still being published and stops after the last slot given.
+     */
+    private void drain() {
+        long next = 0;
+        int game = -1;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) == next + 1) {
+                long event = events[slot];
+                int eventGame = (int) (event >>> 48);
+                if (eventGame != game) {
+                    game = eventGame;
+                    out.println("Game " + game + ":");
+                }
+                print(event);
+                consumed = ++next;
+                continue;
+            }
+            printer.flush();
+            if (claimed.get() == (next | CLOSED)) {
+                return; // Every event given a slot before close is written
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void print(long event) {
+        boolean firstPlayer = (event & 1L << 4) != 0;
+        int type = (int) (event >>> 5) & 3;
+        int row = (int) (event >>> 8) & 0xFFFF;
+        int col = (int) (event >>> 24) & 0xFFFF;
+        int extra = (int) (event >>> 40) & 0xFF;
+        switch ((int) event & 0xF) {
+            case PLACED:
+                printer.discPlaced(firstPlayer, type, row, col);
+                break;
+            case FLIPPED:
+                printer.discFlipped(firstPlayer, type, row, col);
+                break;
+            case EXPLODED:
+                printer.bombExploded(firstPlayer, row, col);
+                break;
+            case COMPLETED:
+                printer.moveCompleted(firstPlayer);
+                break;
+            case REJECTED:
+                printer.moveRejected(firstPlayer, type, row, col, extra);
+                break;
+            case UNDONE:
+                printer.moveUndone(firstPlayer, type, row, col);
+                break;
+            case FLIPPED_BACK:
+                printer.discFlippedBack(firstPlayer, type, row, col);
+                break;
+            case UNDO_COMPLETED:
+                printer.undoCompleted();
+                break;
+            case UNDO_REJECTED:
+                printer.undoRejected();
+                break;
+            default:
+                printer.gameFinished(extra, row, col);
+        }
+    }
+
+    /**
+     * Get the number of events put in the ring buffer so far, the events dropped after close are not counted.
+     */
+    public long getEventCount() {
+        return eventCount.sum();
+    }
+
+    /**
+     * Write the pending events and close the file. Events fired after the call are dropped.
+     */
+    @Override
+    public void close() {
+        if ((claimed.getAndUpdate(sequence -> sequence | CLOSED) & CLOSED) != 0) {
+            return; // Already closed
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        printer.close();
+    }
+}
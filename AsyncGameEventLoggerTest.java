@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncGameEventLoggerTest {
+
+    @Test
+    void writesTheEventsOfAGameLikeTheConsole() throws Exception {
+        Path file = Files.createTempFile("events", ".log");
+        try {
+            ByteArrayOutputStream console = new ByteArrayOutputStream();
+            GameLogic logged = newGame();
+            GameLogic printed = newGame();
+            AsyncGameEventLogger logger = new AsyncGameEventLogger(file.toString());
+            logged.setGameEventListener(logger.forGame(3));
+            printed.setGameEventListener(new ConsoleGameEventListener(new PrintStream(console, true, StandardCharsets.UTF_8)));
+            GreedyAI ai = new GreedyAI(true);
+            int plies = 0;
+            while (!logged.ValidMoves().isEmpty()) {
+                Move move = ai.makeMove(logged);
+                play(logged, move);
+                play(printed, move);
+                if (++plies == 10) {
+                    // An undo and a move on a taken cell are logged too
+                    logged.undoLastMove();
+                    printed.undoLastMove();
+                    play(logged, move);
+                    play(printed, move);
+                    play(logged, move);
+                    play(printed, move);
+                }
+            }
+            long events = logger.getEventCount();
+            assertTrue(events > 0);
+            logger.close();
+            logged.undoLastMove(); // Dropped after close
+            assertEquals(events, logger.getEventCount(), "The events fired after close should be dropped.");
+            String expected = "Game 3:\n" + console.toString(StandardCharsets.UTF_8);
+            assertEquals(expected, Files.readString(file, StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void closeWritesEveryEventOfConcurrentGames() throws Exception {
+        Path file = Files.createTempFile("events", ".log");
+        try {
+            AsyncGameEventLogger logger = new AsyncGameEventLogger(file.toString(), 16);
+            List<Thread> games = new ArrayList<>();
+            for (int game = 0; game < 4; game++) {
+                GameEventListener listener = logger.forGame(game);
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        listener.discPlaced(true, DiscType.SIMPLE, i % 8, i / 8 % 8);
+                    }
+                });
+                games.add(thread);
+                thread.start();
+            }
+            Thread.sleep(5);
+            logger.close(); // While the games still fire events
+            for (Thread thread : games) {
+                thread.join();
+            }
+            long placed = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    .filter(line -> line.startsWith("Player 1 placed")).count();
+            assertEquals(logger.getEventCount(), placed, "Every event put in the ring buffer should be written.");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static GameLogic newGame() {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        return game;
+    }
+
+    /**
+     * Play a move chosen on another game, with a disc of the same type owned by the player to move of this game.
+     */
+    private static void play(GameLogic game, Move move) {
+        Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+        game.locate_disc(move.position(), DiscType.newDisc(DiscType.of(move.disc()), mover));
+    }
+}
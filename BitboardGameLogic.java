@@ -0,0 +1,610 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a second implementation of the rules of the game which keeps the 8x8 board as 64-bit masks
+ * instead of a matrix of discs. Bit (row * 8 + col) of a mask stands for the cell (row, col).
+ * One mask is kept per owner, plus masks of the cells holding a BombDisc or an UnflippableDisc,
+ * so that moves and flips are computed with shifts and bitwise operations.
+ * The flipping rules are the same as in GameLogic: directions are resolved one after the other,
+ * unflippable discs close a line but are not flipped by it, and a flipped bomb flips every neighbouring
+ * disc which is not owned by the mover, triggering the bombs among them.
+ */
+public class BitboardGameLogic implements AnalyzableLogic {
+    private static final int BOARD_SIZE = 8;
+    private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+    private static final long NOT_FIRST_COLUMN = ~0x0101010101010101L;
+    private static final long NOT_LAST_COLUMN = ~0x8080808080808080L;
+
+    // Bit shift and wrap mask of each direction, in the same order as GameLogic's directions array
+    private static final int[] SHIFTS = {-8, 8, -1, 1, -9, -7, 7, 9};
+    private static final long[] WRAP_MASKS = {
+            -1L, -1L, NOT_LAST_COLUMN, NOT_FIRST_COLUMN,
+            NOT_LAST_COLUMN, NOT_FIRST_COLUMN, NOT_LAST_COLUMN, NOT_FIRST_COLUMN
+    };
+
+    private final long[] discs = new long[2]; // discs[0] for the first player, discs[1] for the second
+    private long bombs;
+    private long unflippables;
+    private int side; // 0 when it is the first player's turn
+    private Player player1;
+    private Player player2;
+    private final int[] bombsLeft = new int[2];
+    private final int[] unflippablesLeft = new int[2];
+
+    // Move history, one entry per ply: the placed cell, the placed type and the mask of flipped cells
+    private final int[] historySquares = new int[CELLS];
+    private final int[] historyTypes = new int[CELLS];
+    private final long[] historyFlips = new long[CELLS];
+    private final long[] historyHashes = new long[CELLS]; // Zobrist hash before the move
+    private int historySize;
+    private long hash; // Zobrist hash of the current position, see the Zobrist class
+    private boolean closedLine; // Set by resolveFlips, a move is legal when it closes at least one line
+    private long explodedBombs; // Set by resolveFlips, the bombs exploded by the move
+    private long bombFlips; // Set by resolveFlips, the cells flipped by bomb explosions
+    private int cascadeRounds; // Set by resolveFlips, the most rounds of explosions of a line's bombs
+    private long lastBombFlips; // The cells flipped by bomb explosions during the last move played
+    private GameEventListener listener = GameEventListener.NONE; // Private copies keep the silent listener
+    private boolean syncPlayers = true; // False for private copies, which must not touch the players' inventories
+
+    // Disc objects handed out by getDiscAtPosition, their owner is synchronized lazily
+    private final Disc[] discObjects = new Disc[CELLS];
+
+    public BitboardGameLogic() {
+    }
+
+    /**
+     * This function's purpose is to take a private copy of the position of any 8x8 game, so that an AI can
+     * search it with play and undoLastMove without touching the game or the players it was copied from.
+     * The special discs left to each player are read from the players, the move history is not copied.
+     * @param source , the game to copy
+     */
+    public static BitboardGameLogic copyOf(PlayableLogic source) {
+        if (source.getBoardSize() != BOARD_SIZE) {
+            throw new IllegalArgumentException("The bitboard engine only supports " + BOARD_SIZE + "x" + BOARD_SIZE + " boards.");
+        }
+        BitboardGameLogic copy = new BitboardGameLogic();
+        copy.player1 = source.getFirstPlayer();
+        copy.player2 = source.getSecondPlayer();
+        copy.syncPlayers = false;
+        copy.side = source.isFirstPlayerTurn() ? 0 : 1;
+        if (source instanceof BitboardGameLogic) {
+            BitboardGameLogic other = (BitboardGameLogic) source;
+            copy.discs[0] = other.discs[0];
+            copy.discs[1] = other.discs[1];
+            copy.bombs = other.bombs;
+            copy.unflippables = other.unflippables;
+            System.arraycopy(other.bombsLeft, 0, copy.bombsLeft, 0, 2);
+            System.arraycopy(other.unflippablesLeft, 0, copy.unflippablesLeft, 0, 2);
+            copy.hash = other.hash;
+            return copy;
+        }
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                Disc disc = source.getDiscAtPosition(new Position(row, col));
+                if (disc == null) {
+                    continue;
+                }
+                long cell = bit(row, col);
+                copy.discs[disc.get_owner() == copy.player1 ? 0 : 1] |= cell;
+                int type = DiscType.of(disc);
+                if (type == DiscType.BOMB) {
+                    copy.bombs |= cell;
+                } else if (type == DiscType.UNFLIPPABLE) {
+                    copy.unflippables |= cell;
+                }
+            }
+        }
+        copy.bombsLeft[0] = copy.player1.getNumber_of_bombs();
+        copy.bombsLeft[1] = copy.player2.getNumber_of_bombs();
+        copy.unflippablesLeft[0] = copy.player1.getNumber_of_unflippedable();
+        copy.unflippablesLeft[1] = copy.player2.getNumber_of_unflippedable();
+        copy.hash = copy.computeHash();
+        return copy;
+    }
+
+    private void initializeBoard() {
+        if (player1 == null || player2 == null) {
+            throw new IllegalStateException("Players must be set before initializing the board.");
+        }
+        int mid = BOARD_SIZE / 2;
+        discs[0] = bit(mid - 1, mid - 1) | bit(mid, mid);
+        discs[1] = bit(mid - 1, mid) | bit(mid, mid - 1);
+        bombs = 0;
+        unflippables = 0;
+        side = 0;
+        historySize = 0;
+        for (int i = 0; i < CELLS; i++) {
+            discObjects[i] = null;
+        }
+        for (int s = 0; s < 2; s++) {
+            bombsLeft[s] = Player.initial_number_of_bombs;
+            unflippablesLeft[s] = Player.initial_number_of_unflippedable;
+        }
+        if (syncPlayers) {
+            player1.reset_bombs_and_unflippedable();
+            player2.reset_bombs_and_unflippedable();
+        }
+        hash = computeHash();
+        listener.gameStarted(BOARD_SIZE);
+    }
+
+    /**
+     * This function's purpose is to compute the Zobrist hash of the current position from scratch.
+     * play and undoLastMove keep the hash up to date incrementally instead.
+     */
+    private long computeHash() {
+        long result = side == 0 ? 0 : Zobrist.secondPlayerToMove();
+        for (int s = 0; s < 2; s++) {
+            for (long cells = discs[s]; cells != 0; cells &= cells - 1) {
+                int square = Long.numberOfTrailingZeros(cells);
+                result ^= Zobrist.cell(square, s, typeAt(square));
+            }
+            result ^= Zobrist.bombsLeft(s, bombsLeft[s]) ^ Zobrist.unflippablesLeft(s, unflippablesLeft[s]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the Zobrist hash of the current position, equal to GameLogic's hash of the same position.
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    @Override
+    public void setGameEventListener(GameEventListener listener) {
+        this.listener = listener == null ? GameEventListener.NONE : listener;
+    }
+
+    @Override
+    public boolean locate_disc(Position a, Disc disc) {
+        if (disc == null || a == null || !isOnBoard(a.row(), a.col())) {
+            return false;
+        }
+        Player owner = disc.get_owner();
+        if (owner != getCurrentPlayer()) {
+            return false; // Only the player to move may place a disc
+        }
+        int square = a.row() * BOARD_SIZE + a.col();
+        if (!play(square, DiscType.of(disc))) {
+            return false;
+        }
+        discObjects[square] = disc;
+        return true;
+    }
+
+    /**
+     * This function's purpose is to place a disc of the current player without creating any object.
+     * It checks the remaining special discs of the player and the validity of the move.
+     * @param square , the cell index (row * 8 + col)
+     * @param type , the type code of the placed disc (see DiscType)
+     * @return true if the move was valid and was made, false otherwise.
+     */
+    public boolean play(int square, int type) {
+        long placed = 1L << square;
+        if (((discs[0] | discs[1]) & placed) != 0) {
+            return reject(square, type, GameEventListener.REJECTED_INVALID);
+        }
+        if (type == DiscType.BOMB && bombsLeft[side] <= 0) {
+            return reject(square, type, GameEventListener.REJECTED_NO_BOMBS);
+        }
+        if (type == DiscType.UNFLIPPABLE && unflippablesLeft[side] <= 0) {
+            return reject(square, type, GameEventListener.REJECTED_NO_UNFLIPPABLES);
+        }
+        long flipped = resolveFlips(square, side);
+        if (!closedLine) {
+            return reject(square, type, GameEventListener.REJECTED_INVALID);
+        }
+
+        historyHashes[historySize] = hash;
+        hash ^= Zobrist.cell(square, side, type) ^ Zobrist.secondPlayerToMove();
+        for (long cells = flipped; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            hash ^= Zobrist.flip(cell, typeAt(cell));
+        }
+        discs[side] |= placed | flipped;
+        discs[1 - side] &= ~flipped;
+        if (type == DiscType.BOMB) {
+            bombs |= placed;
+            hash ^= Zobrist.bombsLeft(side, bombsLeft[side]) ^ Zobrist.bombsLeft(side, bombsLeft[side] - 1);
+            bombsLeft[side]--;
+            if (syncPlayers) {
+                getCurrentPlayer().reduce_bomb();
+            }
+        } else if (type == DiscType.UNFLIPPABLE) {
+            unflippables |= placed;
+            hash ^= Zobrist.unflippablesLeft(side, unflippablesLeft[side])
+                    ^ Zobrist.unflippablesLeft(side, unflippablesLeft[side] - 1);
+            unflippablesLeft[side]--;
+            if (syncPlayers) {
+                getCurrentPlayer().reduce_unflippedable();
+            }
+        }
+        historySquares[historySize] = square;
+        historyTypes[historySize] = type;
+        historyFlips[historySize] = flipped;
+        historySize++;
+        lastBombFlips = bombFlips;
+        if (listener != GameEventListener.NONE) {
+            reportMove(square, type, flipped);
+        }
+        if (EngineMetrics.ENABLED && syncPlayers) { // The moves searched on private copies are not counted
+            EngineMetrics.movePlayed(Long.bitCount(flipped));
+            if (explodedBombs != 0) {
+                // The bombs of all the lines explode together, as one cascade
+                EngineMetrics.bombCascade(Long.bitCount(explodedBombs), cascadeRounds);
+            }
+        }
+        side ^= 1;
+        return true;
+    }
+
+    private boolean reject(int square, int type, int reason) {
+        listener.moveRejected(side == 0, type, square / BOARD_SIZE, square % BOARD_SIZE, reason);
+        return false;
+    }
+
+    /**
+     * This function's purpose is to report a move made by the side to move to the listener.
+     * The flips are reported in cell order, followed by the bombs which exploded.
+     */
+    private void reportMove(int square, int type, long flipped) {
+        boolean first = side == 0;
+        listener.discPlaced(first, type, square / BOARD_SIZE, square % BOARD_SIZE);
+        for (long cells = flipped; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            listener.discFlipped(first, typeAt(cell), cell / BOARD_SIZE, cell % BOARD_SIZE);
+        }
+        for (long cells = explodedBombs; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            listener.bombExploded(first, cell / BOARD_SIZE, cell % BOARD_SIZE);
+        }
+        listener.moveCompleted(first);
+    }
+
+    /**
+     * This function's purpose is to compute the cells flipped by a disc placed by the given side,
+     * without changing the board. Directions are resolved in order, each one on the board left by
+     * the previous ones, and every flipped bomb explodes exactly once.
+     * A line made only of unflippable discs makes the move legal but flips nothing, so the legality
+     * of the move is reported through the closedLine field.
+     * @param square , the cell index of the placed disc
+     * @param mover , the side placing the disc
+     * @return the mask of cells which would change owner.
+     */
+    private long resolveFlips(int square, int mover) {
+        long placed = 1L << square;
+        long own = discs[mover] | placed;
+        long opp = discs[1 - mover];
+        long flipped = 0;
+        closedLine = false;
+        explodedBombs = 0;
+        bombFlips = 0;
+        cascadeRounds = 0;
+
+        for (int d = 0; d < SHIFTS.length; d++) {
+            long line = 0;
+            long cursor = shift(placed, d);
+            while ((cursor & opp) != 0) {
+                line |= cursor;
+                cursor = shift(cursor, d);
+            }
+            if (line == 0 || (cursor & own) == 0) {
+                continue; // The line is not closed by a disc of the mover
+            }
+            closedLine = true;
+            long turned = line & ~unflippables;
+            own |= turned;
+            opp &= ~turned;
+            flipped |= turned;
+
+            // Bomb chain reaction, one wave of neighbours at a time
+            long exploding = line & bombs;
+            long exploded = 0;
+            int rounds = 0;
+            while (exploding != 0) {
+                rounds++;
+                exploded |= exploding;
+                long hit = neighbours(exploding) & opp;
+                own |= hit;
+                opp &= ~hit;
+                flipped |= hit;
+                bombFlips |= hit;
+                exploding = hit & bombs & ~exploded;
+            }
+            explodedBombs |= exploded;
+            cascadeRounds = Math.max(cascadeRounds, rounds);
+        }
+        return flipped;
+    }
+
+    /**
+     * This function's purpose is to return the mask of the legal moves of the player to move.
+     * Each direction is followed from the mover's discs along runs of opponent discs to an empty cell.
+     */
+    public long validMovesMask() {
+        long own = discs[side];
+        long opp = discs[1 - side];
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int d = 0; d < SHIFTS.length; d++) {
+            long run = shift(own, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            moves |= shift(run, d) & empty;
+        }
+        return moves;
+    }
+
+    private static long shift(long cells, int direction) {
+        int s = SHIFTS[direction];
+        return (s > 0 ? cells << s : cells >>> -s) & WRAP_MASKS[direction];
+    }
+
+    private static long neighbours(long cells) {
+        long result = 0;
+        for (int d = 0; d < SHIFTS.length; d++) {
+            result |= shift(cells, d);
+        }
+        return result;
+    }
+
+    private static long bit(int row, int col) {
+        return 1L << (row * BOARD_SIZE + col);
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE;
+    }
+
+    @Override
+    public Disc getDiscAtPosition(Position position) {
+        int square = position.row() * BOARD_SIZE + position.col();
+        long cell = 1L << square;
+        if (((discs[0] | discs[1]) & cell) == 0) {
+            return null;
+        }
+        Player owner = (discs[0] & cell) != 0 ? player1 : player2;
+        Disc disc = discObjects[square];
+        if (disc == null) {
+            disc = DiscType.newDisc(typeAt(square), owner);
+            discObjects[square] = disc;
+        } else if (disc.get_owner() != owner) {
+            disc.set_owner(owner);
+        }
+        return disc;
+    }
+
+    private int typeAt(int square) {
+        long cell = 1L << square;
+        if ((bombs & cell) != 0) {
+            return DiscType.BOMB;
+        }
+        if ((unflippables & cell) != 0) {
+            return DiscType.UNFLIPPABLE;
+        }
+        return DiscType.SIMPLE;
+    }
+
+    @Override
+    public void analyzeMoves(MoveAnalysis analysis) {
+        int mover = Long.bitCount(discs[side]);
+        int opponent = Long.bitCount(discs[1 - side]);
+        analysis.clear();
+        for (long moves = validMovesMask(); moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            int flips = Long.bitCount(resolveFlips(square, side));
+            analysis.add(square, flips, Long.bitCount(bombFlips), mover + 1 + flips - (opponent - flips));
+        }
+    }
+
+    @Override
+    public void generateTypedMoves(TypedMoves moves) {
+        boolean bombs = bombsLeft[side] > 0;
+        boolean unflippables = unflippablesLeft[side] > 0;
+        long legal = validMovesMask();
+        moves.clear();
+        for (long cells = legal; cells != 0; cells &= cells - 1) {
+            moves.add(Long.numberOfTrailingZeros(cells), bombs, unflippables);
+        }
+        if (EngineMetrics.ENABLED && syncPlayers) {
+            EngineMetrics.movesGenerated(Long.bitCount(legal)); // The legal cells, like ValidMoves
+        }
+    }
+
+    @Override
+    public int getDiscCount(boolean firstPlayer) {
+        return Long.bitCount(discs[firstPlayer ? 0 : 1]);
+    }
+
+    @Override
+    public int getDiscCount(boolean firstPlayer, int type) {
+        long own = discs[firstPlayer ? 0 : 1];
+        switch (type) {
+            case DiscType.BOMB:
+                return Long.bitCount(own & bombs);
+            case DiscType.UNFLIPPABLE:
+                return Long.bitCount(own & unflippables);
+            default:
+                return Long.bitCount(own & ~bombs & ~unflippables);
+        }
+    }
+
+    @Override
+    public int getEmptyCellCount() {
+        return Long.bitCount(~(discs[0] | discs[1]));
+    }
+
+    @Override
+    public int getBoardSize() {
+        return BOARD_SIZE;
+    }
+
+    @Override
+    public List<Position> ValidMoves() {
+        long moves = validMovesMask();
+        List<Position> validMoves = new ArrayList<>(Long.bitCount(moves));
+        while (moves != 0) {
+            int square = Long.numberOfTrailingZeros(moves);
+            validMoves.add(Position.of(square / BOARD_SIZE, square % BOARD_SIZE));
+            moves &= moves - 1;
+        }
+        if (EngineMetrics.ENABLED && syncPlayers) {
+            EngineMetrics.movesGenerated(validMoves.size());
+        }
+        return validMoves;
+    }
+
+    @Override
+    public int countFlips(Position a) {
+        int square = a.row() * BOARD_SIZE + a.col();
+        if (((discs[0] | discs[1]) & (1L << square)) != 0) {
+            return 0;
+        }
+        return Long.bitCount(resolveFlips(square, side));
+    }
+
+    /**
+     * Get the mask of the cells owned by one of the players.
+     *
+     * @param firstPlayer true for the first player's discs, false for the second player's discs.
+     */
+    public long getDiscMask(boolean firstPlayer) {
+        return discs[firstPlayer ? 0 : 1];
+    }
+
+    public long getBombMask() {
+        return bombs;
+    }
+
+    public long getUnflippableMask() {
+        return unflippables;
+    }
+
+    /**
+     * Get the mask of the cells flipped by the last move, bomb explosions included, 0 before the first move.
+     */
+    public long getLastFlips() {
+        return historySize == 0 ? 0 : historyFlips[historySize - 1];
+    }
+
+    /**
+     * Get the mask of the cells flipped by bomb explosions during the last move made with play or locate_disc.
+     * It is not restored by undoLastMove.
+     */
+    public long getLastBombFlips() {
+        return lastBombFlips;
+    }
+
+    /**
+     * Get the number of bomb discs one of the players may still place.
+     *
+     * @param firstPlayer true for the first player, false for the second player.
+     */
+    public int getBombsLeft(boolean firstPlayer) {
+        return bombsLeft[firstPlayer ? 0 : 1];
+    }
+
+    /**
+     * Get the number of unflippable discs one of the players may still place.
+     *
+     * @param firstPlayer true for the first player, false for the second player.
+     */
+    public int getUnflippablesLeft(boolean firstPlayer) {
+        return unflippablesLeft[firstPlayer ? 0 : 1];
+    }
+
+    @Override
+    public Player getFirstPlayer() {
+        return player1;
+    }
+
+    @Override
+    public Player getSecondPlayer() {
+        return player2;
+    }
+
+    @Override
+    public void setPlayers(Player player1, Player player2) {
+        this.player1 = player1;
+        this.player2 = player2;
+        initializeBoard();
+    }
+
+    @Override
+    public boolean isFirstPlayerTurn() {
+        return side == 0;
+    }
+
+    @Override
+    public boolean isGameFinished() {
+        if ((discs[0] | discs[1]) != -1L && validMovesMask() != 0) {
+            return false;
+        }
+        int first = Long.bitCount(discs[0]);
+        int second = Long.bitCount(discs[1]);
+        if (syncPlayers && first > second) {
+            player1.addWin();
+        } else if (syncPlayers && second > first) {
+            player2.addWin();
+        }
+        listener.gameFinished(first > second ? 1 : second > first ? 2 : 0, first, second);
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        initializeBoard();
+    }
+
+    @Override
+    public void undoLastMove() {
+        if (historySize == 0) {
+            listener.undoRejected();
+            return;
+        }
+        historySize--;
+        int square = historySquares[historySize];
+        int type = historyTypes[historySize];
+        long flipped = historyFlips[historySize];
+        long placed = 1L << square;
+
+        side ^= 1;
+        discs[side] &= ~(placed | flipped);
+        discs[1 - side] |= flipped;
+        if (type == DiscType.BOMB) {
+            bombs &= ~placed;
+            bombsLeft[side]++;
+            if (syncPlayers) {
+                getCurrentPlayer().number_of_bombs++;
+            }
+        } else if (type == DiscType.UNFLIPPABLE) {
+            unflippables &= ~placed;
+            unflippablesLeft[side]++;
+            if (syncPlayers) {
+                getCurrentPlayer().number_of_unflippedable++;
+            }
+        }
+        discObjects[square] = null;
+        hash = historyHashes[historySize];
+        if (listener != GameEventListener.NONE) {
+            listener.moveUndone(side == 0, type, square / BOARD_SIZE, square % BOARD_SIZE);
+            for (long cells = flipped; cells != 0; cells &= cells - 1) {
+                int cell = Long.numberOfTrailingZeros(cells);
+                listener.discFlippedBack(side != 0, typeAt(cell), cell / BOARD_SIZE, cell % BOARD_SIZE);
+            }
+            listener.undoCompleted();
+        }
+        if (EngineMetrics.ENABLED && syncPlayers) {
+            EngineMetrics.undone();
+        }
+    }
+
+    private Player getCurrentPlayer() {
+        return side == 0 ? player1 : player2;
+    }
+}
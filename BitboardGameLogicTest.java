@@ -0,0 +1,184 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the GameLogic tests against BitboardGameLogic and compares both engines on random games.
+ */
+class BitboardGameLogicTest extends GameLogicTest {
+
+    @Override
+    AnalyzableLogic createGameLogic() {
+        return new BitboardGameLogic();
+    }
+
+    @Test
+    void matchesGameLogicOnRandomGames() {
+        Random rand = new Random(2024);
+        MoveAnalysis referenceAnalysis = new MoveAnalysis(8);
+        MoveAnalysis bitboardAnalysis = new MoveAnalysis(8);
+        for (int game = 0; game < 100; game++) {
+            GameLogic reference = new GameLogic();
+            reference.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            BitboardGameLogic bitboard = new BitboardGameLogic();
+            bitboard.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+
+            List<Position> moves = reference.ValidMoves();
+            while (!moves.isEmpty()) {
+                assertSameMoves(moves, bitboard.ValidMoves());
+                Position move = moves.get(rand.nextInt(moves.size()));
+                int type = randomType(rand, bitboard);
+                Player referencePlayer = reference.isFirstPlayerTurn() ? reference.getFirstPlayer() : reference.getSecondPlayer();
+                Player bitboardPlayer = bitboard.isFirstPlayerTurn() ? bitboard.getFirstPlayer() : bitboard.getSecondPlayer();
+
+                int expectedFlips = bitboard.countFlips(move);
+                reference.analyzeMoves(referenceAnalysis);
+                bitboard.analyzeMoves(bitboardAnalysis);
+                assertEquals(moves.size(), referenceAnalysis.getMoveCount());
+                for (int cell = 0; cell < 64; cell++) {
+                    assertEquals(bitboardAnalysis.isLegal(cell), referenceAnalysis.isLegal(cell));
+                    assertEquals(bitboardAnalysis.getFlips(cell), referenceAnalysis.getFlips(cell), "Both analyses should count the same flips.");
+                    assertEquals(bitboardAnalysis.getBombFlips(cell), referenceAnalysis.getBombFlips(cell));
+                    assertEquals(bitboardAnalysis.getDiscDifferential(cell), referenceAnalysis.getDiscDifferential(cell));
+                }
+                assertEquals(expectedFlips, referenceAnalysis.getFlips(move.row() * 8 + move.col()));
+                for (Position candidate : moves) {
+                    assertEquals(bitboard.countFlips(candidate), reference.countFlips(candidate), "Both engines should count the same flips.");
+                }
+                long before = bitboard.getDiscMask(bitboardPlayer.isPlayerOne());
+                assertTrue(reference.locate_disc(move, DiscType.newDisc(type, referencePlayer)));
+                assertTrue(bitboard.locate_disc(move, DiscType.newDisc(type, bitboardPlayer)));
+                long after = bitboard.getDiscMask(bitboardPlayer.isPlayerOne());
+                assertEquals(expectedFlips + 1, Long.bitCount(after & ~before), "countFlips should match the flipped discs");
+
+                assertSameBoard(reference, bitboard);
+                assertEquals(reference.getZobristHash(), bitboard.getZobristHash(), "Both engines should hash the position alike.");
+                assertEquals(BitboardGameLogic.copyOf(reference).getZobristHash(), bitboard.getZobristHash(),
+                        "The incremental hash should match a hash computed from scratch.");
+                moves = reference.ValidMoves();
+            }
+            assertTrue(bitboard.ValidMoves().isEmpty(), "Both engines should end the game together.");
+        }
+    }
+
+    @Test
+    void typedMovesFollowTheInventory() {
+        Random rand = new Random(25);
+        TypedMoves referenceMoves = new TypedMoves(8);
+        TypedMoves bitboardMoves = new TypedMoves(8);
+        for (int game = 0; game < 50; game++) {
+            GameLogic reference = new GameLogic();
+            reference.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            BitboardGameLogic bitboard = new BitboardGameLogic();
+            bitboard.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            while (true) {
+                reference.generateTypedMoves(referenceMoves);
+                bitboard.generateTypedMoves(bitboardMoves);
+                int count = bitboardMoves.getMoveCount();
+                assertEquals(referenceMoves.getMoveCount(), count);
+                boolean first = bitboard.isFirstPlayerTurn();
+                int types = 1 + (bitboard.getBombsLeft(first) > 0 ? 1 : 0) + (bitboard.getUnflippablesLeft(first) > 0 ? 1 : 0);
+                assertEquals(reference.ValidMoves().size() * types, count, "Every legal cell should come with every affordable type.");
+                for (int i = 0; i < count; i++) {
+                    assertEquals(referenceMoves.getMove(i), bitboardMoves.getMove(i));
+                }
+                if (count == 0) {
+                    break;
+                }
+                int i = rand.nextInt(count);
+                Player mover = first ? reference.getFirstPlayer() : reference.getSecondPlayer();
+                Move move = referenceMoves.toMove(i, mover);
+                assertTrue(reference.locate_disc(move.position(), move.disc()), "A generated move should be legal.");
+                assertTrue(bitboard.play(TypedMoves.cell(bitboardMoves.getMove(i)), TypedMoves.type(bitboardMoves.getMove(i))));
+            }
+        }
+    }
+
+    @Test
+    void undoRestoresEveryPly() {
+        Random rand = new Random(7);
+        BitboardGameLogic bitboard = new BitboardGameLogic();
+        bitboard.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        long[][] states = new long[64][];
+        int plies = 0;
+        while (bitboard.validMovesMask() != 0) {
+            states[plies++] = state(bitboard);
+            List<Position> moves = bitboard.ValidMoves();
+            Position move = moves.get(rand.nextInt(moves.size()));
+            Player player = bitboard.isFirstPlayerTurn() ? bitboard.getFirstPlayer() : bitboard.getSecondPlayer();
+            assertTrue(bitboard.locate_disc(move, DiscType.newDisc(randomType(rand, bitboard), player)));
+        }
+        while (plies > 0) {
+            bitboard.undoLastMove();
+            assertArrayEquals(states[--plies], state(bitboard), "Undo should restore the board of ply " + plies);
+        }
+    }
+
+    @Test
+    void specialDiscsAreLimited() {
+        Player first = gameLogic.getFirstPlayer();
+        Player second = gameLogic.getSecondPlayer();
+        assertTrue(gameLogic.locate_disc(new Position(4, 2), new BombDisc(first)));
+        assertEquals(Player.initial_number_of_bombs - 1, first.getNumber_of_bombs());
+        assertFalse(gameLogic.locate_disc(new Position(2, 2), new SimpleDisc(first)), "Only the player to move may place a disc.");
+        assertTrue(gameLogic.locate_disc(new Position(3, 2), new UnflippableDisc(second)));
+        assertEquals(Player.initial_number_of_unflippedable - 1, second.getNumber_of_unflippedable());
+        gameLogic.undoLastMove();
+        gameLogic.undoLastMove();
+        assertEquals(Player.initial_number_of_bombs, first.getNumber_of_bombs());
+        assertEquals(Player.initial_number_of_unflippedable, second.getNumber_of_unflippedable());
+    }
+
+    private static int randomType(Random rand, PlayableLogic logic) {
+        Player player = logic.isFirstPlayerTurn() ? logic.getFirstPlayer() : logic.getSecondPlayer();
+        int roll = rand.nextInt(10);
+        if (roll == 0 && player.getNumber_of_bombs() > 0) {
+            return DiscType.BOMB;
+        }
+        if (roll == 1 && player.getNumber_of_unflippedable() > 0) {
+            return DiscType.UNFLIPPABLE;
+        }
+        return DiscType.SIMPLE;
+    }
+
+    private static long[] state(BitboardGameLogic logic) {
+        return new long[]{
+                logic.getDiscMask(true), logic.getDiscMask(false), logic.getBombMask(), logic.getUnflippableMask(),
+                logic.isFirstPlayerTurn() ? 1 : 0, logic.getZobristHash(),
+                logic.getFirstPlayer().getNumber_of_bombs(), logic.getSecondPlayer().getNumber_of_bombs(),
+                logic.getFirstPlayer().getNumber_of_unflippedable(), logic.getSecondPlayer().getNumber_of_unflippedable()
+        };
+    }
+
+    private static void assertSameMoves(List<Position> expected, List<Position> actual) {
+        assertEquals(expected.size(), actual.size(), "Both engines should find the same number of moves.");
+        for (Position p : expected) {
+            boolean found = false;
+            for (Position q : actual) {
+                found |= p.row() == q.row() && p.col() == q.col();
+            }
+            assertTrue(found, "Move (" + p.row() + ", " + p.col() + ") is missing.");
+        }
+    }
+
+    private static void assertSameBoard(PlayableLogic expected, PlayableLogic actual) {
+        assertEquals(expected.isFirstPlayerTurn(), actual.isFirstPlayerTurn());
+        for (int row = 0; row < expected.getBoardSize(); row++) {
+            for (int col = 0; col < expected.getBoardSize(); col++) {
+                Disc e = expected.getDiscAtPosition(new Position(row, col));
+                Disc a = actual.getDiscAtPosition(new Position(row, col));
+                if (e == null) {
+                    assertNull(a, "Cell (" + row + ", " + col + ") should be empty.");
+                } else {
+                    assertNotNull(a, "Cell (" + row + ", " + col + ") should hold a disc.");
+                    assertEquals(e.getType(), a.getType());
+                    assertEquals(e.get_owner().isPlayerOne(), a.get_owner().isPlayerOne(),
+                            "Cell (" + row + ", " + col + ") has the wrong owner.");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A board view which is painted by itself and follows the game through its events, alongside the
+ * GUI_for_chess_like_games window. Set it as the game event listener of a game: every placed, flipped or removed
+ * disc updates the view's own copy of the cell and marks the cell as changed, and only the changed cells are
+ * repainted. The events may come from any thread; the changes of many moves are gathered until the Swing event
+ * thread repaints them, so fast games cost one repaint per event-thread turn and an idle game costs nothing.
+ * <p>
+ * Usage: java BoardView [first AI] [second AI] [-size N] [-delay ms] plays AI games one after the other
+ * (GreedyAI against RandomAI on an 8x8 board when nothing is given) and shows the moves per second in the title.
+ */
+public class BoardView extends JComponent implements GameEventListener {
+    private static final long serialVersionUID = 1L;
+    private static final int CELL_PIXELS = 55;
+    private static final Color LIGHT = Color.WHITE;
+    private static final Color DARK = Color.BLACK;
+    private static final Color FIRST_PLAYER = Color.BLUE;
+    private static final Color SECOND_PLAYER = new Color(255, 0, 0);
+    private static final Color GRID = Color.GRAY;
+
+    private final int boardSize;
+    // The cells as the events left them: 0 for an empty cell, otherwise the DiscType code + 1 in the two low bits
+    // and 4 for a disc of the second player, the encoding of GameLogic
+    private final byte[] cells;
+    private final long[] changed; // A bitset of the cells to repaint, guarded by the view
+    private final AtomicBoolean repaintQueued = new AtomicBoolean();
+    private final Runnable repaintChanged = this::repaintChanged;
+    private final Rectangle cellBounds = new Rectangle(); // Scratch space of the event thread
+    private final String[] symbols = new String[DiscType.COUNT];
+    private Font symbolFont;
+    private int fontCellPixels;
+    private volatile long moves; // The discs placed since the view was created
+
+    public BoardView(int boardSize) {
+        this.boardSize = boardSize;
+        this.cells = new byte[boardSize * boardSize];
+        this.changed = new long[(cells.length + 63) / 64];
+        for (int type = 0; type < DiscType.COUNT; type++) {
+            symbols[type] = DiscType.symbol(type);
+        }
+        setOpaque(true);
+        setPreferredSize(new Dimension(boardSize * Math.min(CELL_PIXELS, 800 / boardSize),
+                boardSize * Math.min(CELL_PIXELS, 800 / boardSize)));
+        gameStarted(boardSize);
+    }
+
+    /**
+     * This function's purpose is to copy every cell of a game to the view, for a game which was played
+     * before the view became its listener.
+     */
+    public void showBoard(PlayableLogic game) {
+        synchronized (this) {
+            for (int row = 0; row < boardSize; row++) {
+                for (int col = 0; col < boardSize; col++) {
+                    Disc disc = game.getDiscAtPosition(Position.of(row, col));
+                    cells[row * boardSize + col] = disc == null ? 0
+                            : encode(disc.get_owner().isPlayerOne(), DiscType.of(disc));
+                }
+            }
+            Arrays.fill(changed, -1L);
+        }
+        queueRepaint();
+    }
+
+    private static byte encode(boolean firstPlayer, int type) {
+        return (byte) ((type + 1) | (firstPlayer ? 0 : 4));
+    }
+
+    /**
+     * This function's purpose is to change a cell of the view's copy and to mark it for the next repaint.
+     */
+    private void setCell(int row, int col, byte cell) {
+        synchronized (this) {
+            int index = row * boardSize + col;
+            cells[index] = cell;
+            changed[index >>> 6] |= 1L << index;
+        }
+        queueRepaint();
+    }
+
+    private void queueRepaint() {
+        if (repaintQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(repaintChanged);
+        }
+    }
+
+    /**
+     * This function's purpose is to ask Swing to repaint the changed cells, on the event thread.
+     * The repaint manager merges the requests into one paint of the region around them.
+     */
+    private void repaintChanged() {
+        repaintQueued.set(false);
+        int pixels = cellPixels();
+        synchronized (this) {
+            for (int word = 0; word < changed.length; word++) {
+                long bits = changed[word];
+                changed[word] = 0;
+                while (bits != 0) {
+                    int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    repaint(index % boardSize * pixels, index / boardSize * pixels, pixels, pixels);
+                }
+            }
+        }
+    }
+
+    private int cellPixels() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / boardSize);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int pixels = cellPixels();
+        if (symbolFont == null || fontCellPixels != pixels) {
+            symbolFont = new Font(Font.DIALOG, Font.PLAIN, Math.max(8, pixels * 20 / CELL_PIXELS));
+            fontCellPixels = pixels;
+        }
+        g2.setFont(symbolFont);
+        FontMetrics metrics = g2.getFontMetrics();
+        Rectangle clip = g2.getClipBounds(cellBounds);
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        if (clip.x + clip.width > pixels * boardSize || clip.y + clip.height > pixels * boardSize) {
+            g2.setColor(getBackground() != null ? getBackground() : LIGHT);
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height); // Around the board
+        }
+        // Only the cells in the clip are painted
+        int firstRow = Math.max(0, clip.y / pixels);
+        int lastRow = Math.min(boardSize - 1, (clip.y + clip.height - 1) / pixels);
+        int firstCol = Math.max(0, clip.x / pixels);
+        int lastCol = Math.min(boardSize - 1, (clip.x + clip.width - 1) / pixels);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                byte cell;
+                synchronized (this) {
+                    cell = cells[row * boardSize + col];
+                }
+                int x = col * pixels;
+                int y = row * pixels;
+                g2.setColor((row + col) % 2 != 0 ? DARK : LIGHT);
+                g2.fillRect(x, y, pixels, pixels);
+                g2.setColor(GRID);
+                g2.drawRect(x, y, pixels - 1, pixels - 1);
+                if (cell != 0) {
+                    String symbol = symbols[(cell & 3) - 1];
+                    g2.setColor((cell & 4) == 0 ? FIRST_PLAYER : SECOND_PLAYER);
+                    g2.drawString(symbol, x + (pixels - metrics.stringWidth(symbol)) / 2,
+                            y + (pixels - metrics.getHeight()) / 2 + metrics.getAscent());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gameStarted(int boardSize) {
+        if (boardSize != this.boardSize) {
+            throw new IllegalArgumentException("The view shows boards of " + this.boardSize + "x" + this.boardSize + " cells");
+        }
+        synchronized (this) {
+            Arrays.fill(cells, (byte) 0);
+            int mid = boardSize / 2;
+            cells[(mid - 1) * boardSize + mid - 1] = encode(true, DiscType.SIMPLE);
+            cells[(mid - 1) * boardSize + mid] = encode(false, DiscType.SIMPLE);
+            cells[mid * boardSize + mid - 1] = encode(false, DiscType.SIMPLE);
+            cells[mid * boardSize + mid] = encode(true, DiscType.SIMPLE);
+            Arrays.fill(changed, -1L);
+        }
+        queueRepaint();
+    }
+
+    @Override
+    public void discPlaced(boolean firstPlayer, int type, int row, int col) {
+        moves++;
+        setCell(row, col, encode(firstPlayer, type));
+    }
+
+    @Override
+    public void discFlipped(boolean firstPlayer, int type, int row, int col) {
+        setCell(row, col, encode(firstPlayer, type));
+    }
+
+    @Override
+    public void moveUndone(boolean firstPlayer, int type, int row, int col) {
+        setCell(row, col, (byte) 0);
+    }
+
+    @Override
+    public void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+        setCell(row, col, encode(firstPlayer, type));
+    }
+
+    /**
+     * Get a cell of the view's copy: 0 for an empty cell, otherwise the DiscType code + 1 in the two low bits
+     * and 4 for a disc of the second player.
+     */
+    int getCell(int row, int col) {
+        synchronized (this) {
+            return cells[row * boardSize + col];
+        }
+    }
+
+    /**
+     * Get the number of discs placed since the view was created.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    public static void main(String[] args) {
+        AIPlayer.registerAllAIPlayers();
+        String first = "GreedyAI";
+        String second = "RandomAI";
+        int size = GameLogic.DEFAULT_BOARD_SIZE;
+        long delay = 0;
+        int named = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                case "-delay":
+                    delay = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    if (named++ == 0) {
+                        first = args[i];
+                    } else {
+                        second = args[i];
+                    }
+            }
+        }
+        GameLogic game = new GameLogic(size);
+        BoardView view = new BoardView(size);
+        game.setGameEventListener(view);
+        game.setPlayers(AIPlayer.createAIPlayer(first, true), AIPlayer.createAIPlayer(second, false));
+
+        String title = first + " vs " + second;
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame(title);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.add(view);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            // Once a second, the title shows the moves per second
+            long[] last = {view.getMoves(), System.nanoTime()};
+            new Timer(1000, e -> {
+                long now = System.nanoTime();
+                long moves = view.getMoves();
+                frame.setTitle(String.format("%s: %.0f moves/s", title, (moves - last[0]) * 1e9 / (now - last[1])));
+                last[0] = moves;
+                last[1] = now;
+            }).start();
+        });
+
+        long pause = delay;
+        Thread player = new Thread(() -> play(game, pause), "board-view-games");
+        player.setDaemon(true);
+        player.start();
+    }
+
+    /**
+     * This function's purpose is to play games one after the other on the calling thread.
+     */
+    private static void play(GameLogic game, long delay) {
+        while (true) {
+            while (!game.isGameFinished()) {
+                Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+                Move move = ((AIPlayer) mover).makeMove(game);
+                if (move == null || !game.locate_disc(move.position(), move.disc())) {
+                    break;
+                }
+                if (delay > 0) {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            game.reset();
+        }
+    }
+}
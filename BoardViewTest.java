@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardViewTest {
+
+    @Test
+    void followsPlacedFlippedAndUndoneDiscs() {
+        Random rand = new Random(5);
+        for (int size : new int[]{8, 6}) {
+            GameLogic game = new GameLogic(size);
+            game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            BoardView view = new BoardView(size);
+            game.setGameEventListener(view);
+            assertSameCells(game, view);
+            long placed = 0;
+            for (int ply = 0; !game.ValidMoves().isEmpty(); ply++) {
+                List<Position> moves = game.ValidMoves();
+                Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+                // Bombs and unflippable discs now and then, so that the explosions and their undo are followed too
+                Disc disc = DiscType.newDisc(ply % 5 == 0 ? rand.nextInt(DiscType.COUNT) : DiscType.SIMPLE, mover);
+                if (game.locate_disc(moves.get(rand.nextInt(moves.size())), disc)) {
+                    placed++;
+                    assertSameCells(game, view);
+                }
+                if (rand.nextInt(6) == 0) {
+                    game.undoLastMove();
+                    assertSameCells(game, view);
+                }
+            }
+            assertEquals(placed, view.getMoves());
+            game.reset();
+            assertSameCells(game, view);
+        }
+    }
+
+    private static void assertSameCells(GameLogic game, BoardView view) {
+        for (int row = 0; row < game.getBoardSize(); row++) {
+            for (int col = 0; col < game.getBoardSize(); col++) {
+                Disc disc = game.getDiscAtPosition(Position.of(row, col));
+                int expected = disc == null ? 0 : (DiscType.of(disc) + 1) | (disc.get_owner().isPlayerOne() ? 0 : 4);
+                assertEquals(expected, view.getCell(row, col), "The view should show the cell (" + row + ", " + col + ").");
+            }
+        }
+    }
+}
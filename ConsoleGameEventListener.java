@@ -0,0 +1,85 @@
+import java.io.PrintStream;
+
+/**
+ * A game event listener which prints the moves, flips and undos of a game the way GameLogic used to print them.
+ */
+public class ConsoleGameEventListener implements GameEventListener {
+    private final PrintStream out;
+
+    public ConsoleGameEventListener() {
+        this(System.out);
+    }
+
+    public ConsoleGameEventListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void discPlaced(boolean firstPlayer, int type, int row, int col) {
+        out.printf("Player %d placed a %s in (%d, %d)\n", firstPlayer ? 1 : 2, DiscType.symbol(type), row, col);
+    }
+
+    @Override
+    public void discFlipped(boolean firstPlayer, int type, int row, int col) {
+        out.printf("Player %d flipped the %s in (%d, %d)\n", firstPlayer ? 1 : 2, DiscType.symbol(type), row, col);
+    }
+
+    @Override
+    public void moveCompleted(boolean firstPlayer) {
+        out.println(); // Print space between moves
+    }
+
+    @Override
+    public void moveRejected(boolean firstPlayer, int type, int row, int col, int reason) {
+        switch (reason) {
+            case REJECTED_NO_BOMBS:
+                out.println("No bombs left for " + (firstPlayer ? "Player 1" : "Player 2"));
+                break;
+            case REJECTED_NO_UNFLIPPABLES:
+                out.println("No unflippables left for " + (firstPlayer ? "Player 1" : "Player 2"));
+                break;
+            default:
+                out.println("Move at " + row + ", " + col + " is invalid.");
+        }
+    }
+
+    @Override
+    public void moveUndone(boolean firstPlayer, int type, int row, int col) {
+        out.println("Undoing last move:");
+        out.printf("\tUndo: removing %s from (%d, %d)\n", DiscType.symbol(type), row, col);
+    }
+
+    @Override
+    public void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+        out.printf("\tUndo: flipping back %s in (%d, %d)\n", DiscType.symbol(type), row, col);
+    }
+
+    @Override
+    public void undoCompleted() {
+        out.println(); // Print space between moves
+    }
+
+    @Override
+    public void undoRejected() {
+        out.println("No previous move available to undo.");
+    }
+
+    @Override
+    public void gameFinished(int winner, int firstPlayerDiscs, int secondPlayerDiscs) {
+        out.println((winner == 0 ? "Draw" : "Player " + winner + " wins") + ", " + firstPlayerDiscs + " - " + secondPlayerDiscs);
+    }
+
+    /**
+     * Flush the stream the events are printed to.
+     */
+    public void flush() {
+        out.flush();
+    }
+
+    /**
+     * Close the stream the events are printed to.
+     */
+    public void close() {
+        out.close();
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * This class maps the three disc classes to small integer codes so that engines can
+ * store a disc type in a primitive field instead of holding a {@link Disc} object.
+ */
+public final class DiscType {
+    public static final int SIMPLE = 0;
+    public static final int BOMB = 1;
+    public static final int UNFLIPPABLE = 2;
+    public static final int COUNT = 3;
+
+    private static final String SIMPLE_SYMBOL = "⬤";
+    private static final String BOMB_SYMBOL = "💣";
+    private static final String UNFLIPPABLE_SYMBOL = "⭕";
+
+    private DiscType() {
+    }
+
+    /**
+     * This function's purpose is to return the type code of a disc.
+     * Discs which are not one of the known classes are recognized by their getType() symbol.
+     * @param disc , a non null disc
+     */
+    public static int of(Disc disc) {
+        if (disc instanceof BombDisc) {
+            return BOMB;
+        }
+        if (disc instanceof UnflippableDisc) {
+            return UNFLIPPABLE;
+        }
+        if (disc instanceof SimpleDisc) {
+            return SIMPLE;
+        }
+        return ofSymbol(disc.getType());
+    }
+
+    /**
+     * This function's purpose is to return the type code matching a disc symbol.
+     * @param symbol , one of the symbols returned by Disc.getType()
+     */
+    public static int ofSymbol(String symbol) {
+        if (BOMB_SYMBOL.equals(symbol)) {
+            return BOMB;
+        }
+        if (UNFLIPPABLE_SYMBOL.equals(symbol)) {
+            return UNFLIPPABLE;
+        }
+        return SIMPLE;
+    }
+
+    /**
+     * This function's purpose is to return the symbol of a type code, as Disc.getType() would.
+     * @param type , a type code
+     */
+    public static String symbol(int type) {
+        switch (type) {
+            case BOMB:
+                return BOMB_SYMBOL;
+            case UNFLIPPABLE:
+                return UNFLIPPABLE_SYMBOL;
+            default:
+                return SIMPLE_SYMBOL;
+        }
+    }
+
+    /**
+     * This function's purpose is to create a new disc object of the given type.
+     * @param type , a type code
+     * @param owner , the owner of the new disc
+     */
+    public static Disc newDisc(int type, Player owner) {
+        switch (type) {
+            case BOMB:
+                return new BombDisc(owner);
+            case UNFLIPPABLE:
+                return new UnflippableDisc(owner);
+            default:
+                return new SimpleDisc(owner);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Random;
+
+/**
+ * Measures the speed of the EndgameSolver on a fixed set of endgame positions.
+ * For every number of empty cells from the smallest to the largest (step 2) the same seeded positions are
+ * solved with an empty table, and the move, the exact score, the nodes and the solve time of each position
+ * are printed, followed by the totals of each number of empty cells.
+ * Usage: java EndgameBenchmark [largest empties] [positions per size] [smallest empties]
+ */
+public class EndgameBenchmark {
+
+    public static void main(String[] args) {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int positionCount = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int smallest = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        TranspositionTable table = new TranspositionTable(16);
+
+        System.out.println("empties, position, move, score, nodes, millis, nodes/s");
+        for (int empties = smallest; empties <= largest; empties += 2) {
+            BitboardGameLogic[] positions = createPositions(empties, positionCount);
+            long totalNodes = 0;
+            long totalNanos = 0;
+            for (int i = 0; i < positions.length; i++) {
+                table.clear();
+                EndgameSolver solver = new EndgameSolver(positions[i], table);
+                long start = System.nanoTime();
+                int move = solver.solve(Long.MAX_VALUE);
+                long nanos = System.nanoTime() - start;
+                totalNodes += solver.getNodes();
+                totalNanos += nanos;
+                System.out.printf("%d, %d, %s, %+d, %d, %.1f, %d%n", empties, i, describe(move), solver.getScore(),
+                        solver.getNodes(), nanos / 1e6, (long) (solver.getNodes() / (nanos / 1e9)));
+            }
+            System.out.printf("%d empties: %d positions, %d nodes, %.1f ms, %d nodes/s%n", empties, positions.length,
+                    totalNodes, totalNanos / 1e6, (long) (totalNodes / (totalNanos / 1e9)));
+        }
+    }
+
+    private static String describe(int move) {
+        if (move < 0) {
+            return "none";
+        }
+        int square = TypedMoves.cell(move);
+        return "(" + square / 8 + " " + square % 8 + ")" + DiscType.symbol(TypedMoves.type(move));
+    }
+
+    /**
+     * This function's purpose is to create reproducible positions with the given number of empty cells,
+     * reached by random play in which the special discs are spent from time to time.
+     * Games which end before reaching the size are played again.
+     * @param empties , the number of empty cells of every position
+     * @param count , the number of positions
+     */
+    static BitboardGameLogic[] createPositions(int empties, int count) {
+        Random rand = new Random(20250601L + empties);
+        BitboardGameLogic[] positions = new BitboardGameLogic[count];
+        for (int i = 0; i < count; ) {
+            BitboardGameLogic game = new BitboardGameLogic();
+            game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            while (EndgameSolver.emptyCount(game) > empties && game.validMovesMask() != 0) {
+                long legal = game.validMovesMask();
+                int square = -1;
+                for (int pick = rand.nextInt(Long.bitCount(legal)); pick >= 0; pick--) {
+                    square = Long.numberOfTrailingZeros(legal);
+                    legal &= legal - 1;
+                }
+                int type = rand.nextInt(10) == 0 ? 1 + rand.nextInt(2) : DiscType.SIMPLE;
+                if (!game.play(square, type)) {
+                    game.play(square, DiscType.SIMPLE); // The special discs of this type are spent
+                }
+            }
+            if (EndgameSolver.emptyCount(game) == empties && game.validMovesMask() != 0) {
+                positions[i++] = BitboardGameLogic.copyOf(game);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * This class solves endgames exactly on a private BitboardGameLogic: every move is searched to the end of
+ * the game, and the score is the final disc differential from the point of view of the player to move
+ * (the discs of the mover minus the discs of the opponent, empty cells left out).
+ * Bomb and unflippable placements are searched as well, as long as the player to move can afford them.
+ * The moves are ordered fastest-first (the move leaving the opponent the fewest replies first) with the
+ * parity of the board quadrants as a tie-break, the cheaper parity order alone is used below
+ * FASTEST_FIRST_EMPTIES empty cells, and the last LAST_MOVES_EMPTIES cells are searched by a dedicated
+ * routine with neither the table nor the move lists.
+ * Results are exact, so they are kept in a transposition table of their own (see sharedTable()).
+ * Like AlphaBetaSearch, the search gives up when its deadline passes or stop() is called.
+ */
+class EndgameSolver {
+    static final int INFINITY = 65; // Above every final disc differential
+    // From this number of empty cells down, the moves are ordered by quadrant parity only
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    // From this number of empty cells down, searchLastMoves takes over
+    private static final int LAST_MOVES_EMPTIES = 4;
+    private static final int MOBILITY_WEIGHT = 16;
+    private static final int EVEN_REGION_PENALTY = 8;
+    private static final long[] QUADRANTS = {
+            0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L
+    };
+    private static final int DEFAULT_TABLE_MB = Integer.getInteger("reversi.endgame.tt.mb", 8);
+
+    private final BitboardGameLogic board;
+    private final TranspositionTable table;
+    // Move lists and their ordering keys, one per number of empty cells, so that the search creates no object
+    private final int[][] moves = new int[65][64 * DiscType.COUNT];
+    private final int[][] keys = new int[65][64 * DiscType.COUNT];
+    private final TypedMoves generated = new TypedMoves(8); // Scratch space of orderMoves, sorted into moves[empties]
+    private long deadline = Long.MAX_VALUE;
+    private boolean aborted;
+    private volatile boolean stopped;
+    private long nodes;
+    private int score;
+
+    private static final class SharedTable {
+        static final TranspositionTable TABLE = new TranspositionTable(DEFAULT_TABLE_MB);
+    }
+
+    EndgameSolver(BitboardGameLogic board, TranspositionTable table) {
+        this.board = board;
+        this.table = table;
+    }
+
+    /**
+     * Get the table shared by the endgame solvers of the process.
+     * Its size is read from the "reversi.endgame.tt.mb" system property (8 MB when it is not set).
+     */
+    static TranspositionTable sharedTable() {
+        return SharedTable.TABLE;
+    }
+
+    static int emptyCount(BitboardGameLogic board) {
+        return Long.bitCount(~(board.getDiscMask(true) | board.getDiscMask(false)));
+    }
+
+    /**
+     * This function's purpose is to find the best move of the player to move and its exact score.
+     * @param deadline , the System.nanoTime() value at which the search must stop
+     * @return the best move (see TypedMoves.encode), or -1 if the search was aborted or there is no move.
+     * The score of the move is read with getScore().
+     */
+    int solve(long deadline) {
+        this.deadline = deadline;
+        this.aborted = false;
+        int empties = emptyCount(board);
+        if (board.validMovesMask() == 0) {
+            score = finalDifferential();
+            return -1;
+        }
+        long entry = table.probe(board.getZobristHash());
+        int count = orderMoves(empties, entry == 0 ? -1 : TranspositionTable.move(entry));
+        int[] list = moves[empties];
+        int bestMove = -1;
+        int alpha = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (!board.play(TypedMoves.cell(move), TypedMoves.type(move))) {
+                continue;
+            }
+            nodes++;
+            int result = bestMove < 0 ? -search(empties - 1, -INFINITY, -alpha)
+                    : -search(empties - 1, -alpha - 1, -alpha);
+            if (bestMove >= 0 && result > alpha && !aborted) {
+                result = -search(empties - 1, -INFINITY, -result);
+            }
+            board.undoLastMove();
+            if (aborted) {
+                return -1;
+            }
+            if (result > alpha) {
+                alpha = result;
+                bestMove = move;
+            }
+        }
+        score = alpha;
+        table.store(board.getZobristHash(), empties, alpha, TranspositionTable.EXACT, bestMove);
+        return bestMove;
+    }
+
+    private int search(int empties, int alpha, int beta) {
+        if ((nodes & 1023) == 0 && (stopped || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (empties <= LAST_MOVES_EMPTIES) {
+            return searchLastMoves(alpha, beta);
+        }
+        if (board.validMovesMask() == 0) {
+            return finalDifferential(); // The player to move is stuck, so the game is over
+        }
+
+        long key = board.getZobristHash();
+        long entry = table.probe(key);
+        int tableMove = -1;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            int stored = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+                return stored;
+            }
+        }
+
+        int count = orderMoves(empties, tableMove);
+        int[] list = moves[empties];
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count && alpha < beta; i++) {
+            int move = list[i];
+            if (!board.play(TypedMoves.cell(move), TypedMoves.type(move))) {
+                continue;
+            }
+            nodes++;
+            int result;
+            if (best == -INFINITY) {
+                result = -search(empties - 1, -beta, -alpha);
+            } else {
+                // Principal variation search: prove with a null window that the move is no better, search again if it is
+                result = -search(empties - 1, -alpha - 1, -alpha);
+                if (result > alpha && result < beta && !aborted) {
+                    result = -search(empties - 1, -beta, -result);
+                }
+            }
+            board.undoLastMove();
+            if (aborted) {
+                return 0;
+            }
+            if (result > best) {
+                best = result;
+                bestMove = move;
+                alpha = Math.max(alpha, result);
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, empties, best, bound, bestMove);
+        return best;
+    }
+
+    /**
+     * This function's purpose is to search the last few empty cells as cheaply as possible: the legal cells
+     * are taken straight from the move mask, those of odd quadrants first, without move lists or table lookups.
+     */
+    private int searchLastMoves(int alpha, int beta) {
+        long legal = board.validMovesMask();
+        if (legal == 0) {
+            return finalDifferential();
+        }
+        long odd = oddRegions();
+        int best = -INFINITY;
+        for (int pass = 0; pass < 2; pass++) {
+            for (long squares = legal & (pass == 0 ? odd : ~odd); squares != 0; squares &= squares - 1) {
+                int square = Long.numberOfTrailingZeros(squares);
+                for (int type = 0; type < DiscType.COUNT; type++) {
+                    if (!board.play(square, type)) {
+                        continue; // No special disc of this type left
+                    }
+                    nodes++;
+                    int result = -searchLastMoves(-beta, -Math.max(alpha, best));
+                    board.undoLastMove();
+                    if (result > best) {
+                        best = result;
+                        if (best >= beta) {
+                            return best;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * This function's purpose is to fill moves[empties] with every affordable move of the player to move,
+     * sorted by increasing key: the table move first, then by the number of replies left to the opponent
+     * (above FASTEST_FIRST_EMPTIES only) and by the parity of the move's quadrant.
+     * @return the number of moves.
+     */
+    private int orderMoves(int empties, int tableMove) {
+        int[] list = moves[empties];
+        int[] order = keys[empties];
+        long odd = oddRegions();
+        board.generateTypedMoves(generated);
+        int count = generated.getMoveCount();
+        for (int m = 0; m < count; m++) {
+            int move = generated.getMove(m);
+            int square = TypedMoves.cell(move);
+            int key;
+            if (move == tableMove) {
+                key = Integer.MIN_VALUE;
+            } else {
+                key = (odd & 1L << square) != 0 ? 0 : EVEN_REGION_PENALTY;
+                if (empties > FASTEST_FIRST_EMPTIES && board.play(square, TypedMoves.type(move))) {
+                    key += MOBILITY_WEIGHT * Long.bitCount(board.validMovesMask());
+                    board.undoLastMove();
+                }
+            }
+            // Insertion sort in place, the lists are short
+            int i = m;
+            while (i > 0 && order[i - 1] > key) {
+                list[i] = list[i - 1];
+                order[i] = order[i - 1];
+                i--;
+            }
+            list[i] = move;
+            order[i] = key;
+        }
+        return count;
+    }
+
+    /**
+     * This function's purpose is to return the mask of the quadrants holding an odd number of empty cells.
+     * Playing there first tends to leave the last move of each quadrant to the player to move.
+     */
+    private long oddRegions() {
+        long empty = ~(board.getDiscMask(true) | board.getDiscMask(false));
+        long odd = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                odd |= quadrant;
+            }
+        }
+        return odd;
+    }
+
+    private int finalDifferential() {
+        boolean first = board.isFirstPlayerTurn();
+        return Long.bitCount(board.getDiscMask(first)) - Long.bitCount(board.getDiscMask(!first));
+    }
+
+    /**
+     * Ask the search to give up as soon as possible.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Get the exact score of the move returned by the last completed solve: the final discs of the
+     * player to move minus the final discs of the opponent.
+     */
+    int getScore() {
+        return score;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    @Test
+    void matchesAPlainSearch() {
+        for (BitboardGameLogic position : EndgameBenchmark.createPositions(8, 6)) {
+            EndgameSolver solver = new EndgameSolver(position, new TranspositionTable(1));
+            int move = solver.solve(Long.MAX_VALUE);
+            assertTrue(move >= 0, "A position with legal moves should be solved.");
+            assertEquals(plainSearch(position), solver.getScore(), "The solver should find the exact final differential.");
+
+            // The returned move should reach that score
+            assertTrue(position.play(TypedMoves.cell(move), TypedMoves.type(move)));
+            assertEquals(solver.getScore(), -plainSearch(position));
+        }
+    }
+
+    @Test
+    void stopsAtTheDeadline() {
+        BitboardGameLogic position = EndgameBenchmark.createPositions(20, 1)[0];
+        EndgameSolver solver = new EndgameSolver(position, new TranspositionTable(1));
+        assertEquals(-1, solver.solve(System.nanoTime()));
+        assertTrue(solver.isAborted());
+        assertEquals(20, EndgameSolver.emptyCount(position), "The position should be left as it was.");
+    }
+
+    /**
+     * Negamax over every affordable move, without pruning nor ordering.
+     */
+    private static int plainSearch(BitboardGameLogic board) {
+        long legal = board.validMovesMask();
+        if (legal == 0) {
+            boolean first = board.isFirstPlayerTurn();
+            return Long.bitCount(board.getDiscMask(first)) - Long.bitCount(board.getDiscMask(!first));
+        }
+        int best = -EndgameSolver.INFINITY;
+        for (; legal != 0; legal &= legal - 1) {
+            for (int type = 0; type < DiscType.COUNT; type++) {
+                if (board.play(Long.numberOfTrailingZeros(legal), type)) {
+                    best = Math.max(best, -plainSearch(board));
+                    board.undoLastMove();
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,252 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the game logic and the AI players, to see where a slow tournament spends its time.
+ * The counters are striped LongAdders, so the games of many threads count without contending, and they are
+ * published through JMX as "reversi:type=EngineMetrics" (see EngineMetricsMBean).
+ * <p>
+ * The metrics are off unless the "reversi.metrics" system property is true. ENABLED is a constant, so the
+ * JIT compiler removes the guarded counting code and a disabled run pays nothing for it.
+ * Every AI decision is also a Flight Recorder event (AIDecisionEvent), which costs nothing unless a recording
+ * enables it.
+ */
+public final class EngineMetrics implements EngineMetricsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("reversi.metrics");
+    private static final int LATENCY_BUCKETS = 32;
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    private final LongAdder movesGenerated = new LongAdder();
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LongAdder flipsApplied = new LongAdder();
+    private final LongAdder bombCascades = new LongAdder();
+    private final LongAdder cascadeBombs = new LongAdder();
+    private final LongAccumulator maxCascadeDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder undos = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder decisionNanos = new LongAdder();
+    private final LongAdder[] decisionLatency = new LongAdder[LATENCY_BUCKETS];
+    private final LongAdder searchNodes = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                        new ObjectName("reversi:type=EngineMetrics"));
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not publish the engine metrics", e);
+            }
+        }
+    }
+
+    private EngineMetrics() {
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            decisionLatency[i] = new LongAdder();
+        }
+    }
+
+    public static EngineMetrics get() {
+        return INSTANCE;
+    }
+
+    // The recording methods are called by the engines under "if (EngineMetrics.ENABLED)"
+
+    static void movesGenerated(int moves) {
+        INSTANCE.movesGenerated.add(moves);
+    }
+
+    /**
+     * @param flips , the discs the move flipped, bomb explosions included
+     */
+    static void movePlayed(int flips) {
+        INSTANCE.movesPlayed.increment();
+        INSTANCE.flipsApplied.add(flips);
+    }
+
+    /**
+     * @param bombs , the bombs which exploded in the cascade
+     * @param depth , the rounds of explosions of the cascade
+     */
+    static void bombCascade(int bombs, int depth) {
+        INSTANCE.bombCascades.increment();
+        INSTANCE.cascadeBombs.add(bombs);
+        INSTANCE.maxCascadeDepth.accumulate(depth);
+    }
+
+    static void undone() {
+        INSTANCE.undos.increment();
+    }
+
+    /**
+     * This function's purpose is to record the decision of an AI player, as the last step of its makeMove.
+     * @param ai , the player
+     * @param move , the chosen move, null when the AI has no move
+     * @param startNanos , the System.nanoTime() value at the start of makeMove
+     * @param nodes , the search nodes or playouts of the decision, 0 for the AIs which do not search
+     * @param depth , the depth the search completed, 0 for the AIs which do not search
+     * @return the move, so that makeMove can return the call.
+     */
+    public static Move decided(AIPlayer ai, Move move, long startNanos, long nodes, int depth) {
+        long nanos = 0;
+        if (ENABLED) {
+            nanos = System.nanoTime() - startNanos;
+            INSTANCE.recordDecision(nanos, nodes);
+        }
+        AIDecisionEvent event = new AIDecisionEvent();
+        if (event.shouldCommit()) {
+            event.ai = ai.getClass().getSimpleName();
+            event.firstPlayer = ai.isPlayerOne();
+            event.row = move == null ? -1 : move.position().row();
+            event.col = move == null ? -1 : move.position().col();
+            event.discType = move == null ? null : move.disc().getType();
+            event.thinkTime = ENABLED ? nanos : System.nanoTime() - startNanos;
+            event.nodes = nodes;
+            event.depth = depth;
+            event.commit();
+        }
+        return move;
+    }
+
+    private void recordDecision(long nanos, long nodes) {
+        decisions.increment();
+        decisionNanos.add(nanos);
+        long micros = nanos / 1000;
+        decisionLatency[Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+        if (nodes > 0) {
+            searchNodes.add(nodes);
+            searchNanos.add(nanos);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getMovesGenerated() {
+        return movesGenerated.sum();
+    }
+
+    @Override
+    public long getMovesPlayed() {
+        return movesPlayed.sum();
+    }
+
+    @Override
+    public long getFlipsApplied() {
+        return flipsApplied.sum();
+    }
+
+    @Override
+    public long getBombCascades() {
+        return bombCascades.sum();
+    }
+
+    @Override
+    public long getCascadeBombs() {
+        return cascadeBombs.sum();
+    }
+
+    @Override
+    public long getMaxCascadeDepth() {
+        return maxCascadeDepth.get();
+    }
+
+    @Override
+    public long getUndos() {
+        return undos.sum();
+    }
+
+    @Override
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    @Override
+    public double getMeanDecisionMillis() {
+        long count = decisions.sum();
+        return count == 0 ? 0 : decisionNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public double getDecisionMillisP50() {
+        return decisionPercentile(0.5);
+    }
+
+    @Override
+    public double getDecisionMillisP99() {
+        return decisionPercentile(0.99);
+    }
+
+    /**
+     * This function's purpose is to find the bucket of the histogram holding a percentile.
+     * @return the upper bound of the bucket in milliseconds.
+     */
+    private double decisionPercentile(double fraction) {
+        long[] histogram = getDecisionLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen > 0 && seen >= fraction * total) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long[] getDecisionLatencyHistogram() {
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            histogram[i] = decisionLatency[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getSearchNodes() {
+        return searchNodes.sum();
+    }
+
+    @Override
+    public long getSearchNodesPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : (long) (searchNodes.sum() / (nanos / 1e9));
+    }
+
+    @Override
+    public void reset() {
+        movesGenerated.reset();
+        movesPlayed.reset();
+        flipsApplied.reset();
+        bombCascades.reset();
+        cascadeBombs.reset();
+        maxCascadeDepth.reset();
+        undos.reset();
+        decisions.reset();
+        decisionNanos.reset();
+        for (LongAdder bucket : decisionLatency) {
+            bucket.reset();
+        }
+        searchNodes.reset();
+        searchNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("moves generated %d, played %d, flips %d, bomb cascades %d (%d bombs, depth up to %d), "
+                        + "undos %d, AI decisions %d (mean %.2f ms, p50 < %.3f ms, p99 < %.3f ms), %d search nodes/s",
+                getMovesGenerated(), getMovesPlayed(), getFlipsApplied(), getBombCascades(), getCascadeBombs(),
+                getMaxCascadeDepth(), getUndos(), getDecisions(), getMeanDecisionMillis(), getDecisionMillisP50(),
+                getDecisionMillisP99(), getSearchNodesPerSecond());
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * The management interface of EngineMetrics, published through JMX as "reversi:type=EngineMetrics".
+ */
+public interface EngineMetricsMBean {
+    boolean isEnabled();
+
+    /** The legal moves found by the GameLogic move generator, over all the positions it computed. */
+    long getMovesGenerated();
+
+    long getMovesPlayed();
+
+    long getFlipsApplied();
+
+    /** The moves whose flips made at least one bomb explode. */
+    long getBombCascades();
+
+    /** The bombs exploded by all the cascades. */
+    long getCascadeBombs();
+
+    /** The most rounds of explosions of one cascade, a bomb set off by an exploding bomb adds a round. */
+    long getMaxCascadeDepth();
+
+    long getUndos();
+
+    long getDecisions();
+
+    double getMeanDecisionMillis();
+
+    /** An upper bound of the median decision time, from the histogram. */
+    double getDecisionMillisP50();
+
+    /** An upper bound of the 99th percentile of the decision time, from the histogram. */
+    double getDecisionMillisP99();
+
+    /** The decisions by time: bucket i counts the decisions of less than 2^i microseconds. */
+    long[] getDecisionLatencyHistogram();
+
+    long getSearchNodes();
+
+    /** The search nodes (or playouts) of the AI decisions divided by the time of these decisions. */
+    long getSearchNodesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class EngineMetricsTest {
+
+    // A line of (row, col, DiscType code) moves whose last simple disc flips a bomb, which sets off a chain of
+    // three bombs, one per round of explosions
+    private static final int[][] CASCADE_LINE = {
+            {4, 2, DiscType.BOMB}, {5, 4, DiscType.SIMPLE}, {6, 5, DiscType.BOMB}, {3, 2, DiscType.BOMB},
+            {2, 2, DiscType.BOMB}, {6, 4, DiscType.SIMPLE}, {6, 3, DiscType.SIMPLE}, {1, 1, DiscType.SIMPLE}
+    };
+
+    @Test
+    void countsABombCascadeAndItsUndo() {
+        countBombCascade(new GameLogic());
+    }
+
+    @Test
+    void countsTheSameOnTheBitboardEngine() {
+        countBombCascade(new BitboardGameLogic());
+    }
+
+    private static void countBombCascade(AnalyzableLogic game) {
+        assumeTrue(EngineMetrics.ENABLED, "The metrics are only counted with -Dreversi.metrics=true");
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        int[] events = new int[3]; // Flipped discs, exploded bombs and discs flipped back, as the game reports them
+        game.setGameEventListener(new GameEventListener() {
+            @Override
+            public void discFlipped(boolean firstPlayer, int type, int row, int col) {
+                events[0]++;
+            }
+
+            @Override
+            public void bombExploded(boolean firstPlayer, int row, int col) {
+                events[1]++;
+            }
+
+            @Override
+            public void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+                events[2]++;
+            }
+        });
+        EngineMetrics metrics = EngineMetrics.get();
+        metrics.reset();
+        for (int[] move : CASCADE_LINE) {
+            Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            assertTrue(game.locate_disc(Position.of(move[0], move[1]), DiscType.newDisc(move[2], mover)));
+        }
+        assertEquals(CASCADE_LINE.length, metrics.getMovesPlayed());
+        assertEquals(events[0], metrics.getFlipsApplied());
+        assertEquals(13, metrics.getFlipsApplied());
+        assertEquals(2, metrics.getBombCascades(), "A bomb of the fifth move and the chain of the last move.");
+        assertEquals(events[1], metrics.getCascadeBombs());
+        assertEquals(4, metrics.getCascadeBombs());
+        assertEquals(3, metrics.getMaxCascadeDepth());
+        assertEquals(0, metrics.getUndos());
+
+        int flipsBefore = events[0];
+        game.undoLastMove();
+        assertEquals(1, metrics.getUndos());
+        assertEquals(5, events[2], "The undo should give back every disc the cascade flipped.");
+        // An undo takes nothing off the counters of the moves
+        assertEquals(CASCADE_LINE.length, metrics.getMovesPlayed());
+        assertEquals(13, metrics.getFlipsApplied());
+        assertEquals(flipsBefore, events[0]);
+
+        // Playing the move again counts it again
+        Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+        int[] last = CASCADE_LINE[CASCADE_LINE.length - 1];
+        assertTrue(game.locate_disc(Position.of(last[0], last[1]), DiscType.newDisc(last[2], mover)));
+        assertEquals(CASCADE_LINE.length + 1, metrics.getMovesPlayed());
+        assertEquals(18, metrics.getFlipsApplied());
+        assertEquals(3, metrics.getBombCascades());
+        assertEquals(7, metrics.getCascadeBombs());
+        metrics.reset();
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays a game-record archive (see GameRecordWriter) on all the cores and reports statistics over its games:
+ * the results, the first player's score by opening cell, the flips per ply, the special discs played and
+ * how often bomb explosions decide a game.
+ * The archive is cut into chunks on game boundaries, every chunk is read by its own memory mapped
+ * GameRecordReader and replayed on its own silent BitboardGameLogic, and the per-chunk statistics are merged.
+ * Only the chunk offsets and the statistics live on the heap, so the archive may be larger than the heap.
+ * <p>
+ * Usage: java GameArchiveStats archive [-threads T] [-chunkMb M]
+ */
+public class GameArchiveStats {
+
+    /**
+     * The statistics of some games. A game is decided by bombs when the winner's discs flipped by explosions,
+     * each of which moved the differential by two, are more than its final margin.
+     */
+    static final class Stats {
+        long games;
+        long plies;
+        long flips;
+        long bombFlips;
+        long firstPlayerWins;
+        long draws;
+        long gamesWithExplosions;
+        long gamesDecidedByBombs;
+        long mismatches; // Games whose replay is refused or does not end with the recorded result
+        final long[] discsPlayed = new long[DiscType.COUNT];
+        final long[] openingGames = new long[64];
+        final long[] openingFirstPlayerWins = new long[64];
+        final long[] openingDraws = new long[64];
+        long nanos; // Time spent replaying, summed over the chunks
+
+        void merge(Stats other) {
+            games += other.games;
+            plies += other.plies;
+            flips += other.flips;
+            bombFlips += other.bombFlips;
+            firstPlayerWins += other.firstPlayerWins;
+            draws += other.draws;
+            gamesWithExplosions += other.gamesWithExplosions;
+            gamesDecidedByBombs += other.gamesDecidedByBombs;
+            mismatches += other.mismatches;
+            for (int type = 0; type < DiscType.COUNT; type++) {
+                discsPlayed[type] += other.discsPlayed[type];
+            }
+            for (int cell = 0; cell < 64; cell++) {
+                openingGames[cell] += other.openingGames[cell];
+                openingFirstPlayerWins[cell] += other.openingFirstPlayerWins[cell];
+                openingDraws[cell] += other.openingDraws[cell];
+            }
+            nanos += other.nanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Usage: java GameArchiveStats archive [-threads T] [-chunkMb M]");
+            return;
+        }
+        Path archive = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        long chunkBytes = 16L << 20;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-chunkMb":
+                    chunkBytes = Long.parseLong(args[i + 1]) << 20;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        Stats stats = analyze(archive, threads, chunkBytes);
+        long elapsed = System.nanoTime() - start;
+        print(stats, elapsed, threads);
+    }
+
+    /**
+     * This function's purpose is to replay every game of an archive, one chunk per task, and to merge the results.
+     * @param archive , the game-record file
+     * @param threads , the number of threads replaying chunks
+     * @param chunkBytes , the approximate size of a chunk
+     */
+    static Stats analyze(Path archive, int threads, long chunkBytes) throws IOException, InterruptedException {
+        long[] offsets;
+        try (GameRecordReader reader = new GameRecordReader(archive)) {
+            offsets = reader.split(chunkBytes);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Stats>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < offsets.length; i++) {
+                long from = offsets[i];
+                long to = offsets[i + 1];
+                chunks.add(pool.submit(() -> replayChunk(archive, from, to)));
+            }
+            Stats total = new Stats();
+            for (Future<Stats> chunk : chunks) {
+                total.merge(chunk.get());
+            }
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A chunk failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This function's purpose is to replay the games of one chunk on a private bitboard engine.
+     */
+    static Stats replayChunk(Path archive, long from, long to) throws IOException {
+        long start = System.nanoTime();
+        Stats stats = new Stats();
+        BitboardGameLogic game = new BitboardGameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        try (GameRecordReader reader = new GameRecordReader(archive, from, to)) {
+            while (reader.next()) {
+                game.reset();
+                replayGame(reader, game, stats);
+            }
+        }
+        stats.nanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    private static void replayGame(GameRecordReader reader, BitboardGameLogic game, Stats stats) {
+        int moveCount = reader.getMoveCount();
+        int firstBombFlips = 0;
+        int secondBombFlips = 0;
+        boolean exploded = false;
+        boolean refused = false;
+        for (int i = 0; i < moveCount; i++) {
+            int move = reader.getMove(i);
+            boolean first = game.isFirstPlayerTurn();
+            if (!game.play(TypedMoves.cell(move), TypedMoves.type(move))) {
+                refused = true;
+                break;
+            }
+            long bombFlips = game.getLastBombFlips();
+            stats.flips += Long.bitCount(game.getLastFlips());
+            stats.bombFlips += Long.bitCount(bombFlips);
+            stats.discsPlayed[TypedMoves.type(move)]++;
+            if (first) {
+                firstBombFlips += Long.bitCount(bombFlips);
+            } else {
+                secondBombFlips += Long.bitCount(bombFlips);
+            }
+            exploded |= bombFlips != 0;
+        }
+        int result = reader.getResult();
+        int replayed = Long.bitCount(game.getDiscMask(true)) - Long.bitCount(game.getDiscMask(false));
+        if (refused || replayed != result) {
+            stats.mismatches++; // A forfeited game, or an archive written by another engine version
+        }
+        stats.games++;
+        stats.plies += moveCount;
+        if (result > 0) {
+            stats.firstPlayerWins++;
+        } else if (result == 0) {
+            stats.draws++;
+        }
+        if (exploded) {
+            stats.gamesWithExplosions++;
+        }
+        if (result != 0 && 2 * (result > 0 ? firstBombFlips : secondBombFlips) > Math.abs(result)) {
+            stats.gamesDecidedByBombs++;
+        }
+        if (moveCount > 0) {
+            int opening = TypedMoves.cell(reader.getMove(0));
+            stats.openingGames[opening]++;
+            if (result > 0) {
+                stats.openingFirstPlayerWins[opening]++;
+            } else if (result == 0) {
+                stats.openingDraws[opening]++;
+            }
+        }
+    }
+
+    private static void print(Stats stats, long elapsedNanos, int threads) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%d games, %d plies in %.2f s on %d threads: %.0f games/s, %.0f games/s per core%n",
+                stats.games, stats.plies, seconds, threads, stats.games / seconds,
+                stats.nanos == 0 ? 0 : stats.games / (stats.nanos / 1e9));
+        if (stats.games == 0) {
+            return;
+        }
+        System.out.printf("First player: %.1f%% wins, %.1f%% draws%n",
+                100.0 * stats.firstPlayerWins / stats.games, 100.0 * stats.draws / stats.games);
+        System.out.printf("Flips per ply: %.2f, of which by bombs: %.2f%n",
+                (double) stats.flips / Math.max(1, stats.plies), (double) stats.bombFlips / Math.max(1, stats.plies));
+        System.out.printf("Discs played: %d %s, %d %s, %d %s%n",
+                stats.discsPlayed[DiscType.SIMPLE], DiscType.symbol(DiscType.SIMPLE),
+                stats.discsPlayed[DiscType.BOMB], DiscType.symbol(DiscType.BOMB),
+                stats.discsPlayed[DiscType.UNFLIPPABLE], DiscType.symbol(DiscType.UNFLIPPABLE));
+        System.out.printf("Games with explosions: %.1f%%, decided by bombs: %.1f%%%n",
+                100.0 * stats.gamesWithExplosions / stats.games, 100.0 * stats.gamesDecidedByBombs / stats.games);
+        if (stats.mismatches > 0) {
+            System.out.printf("Games not matching their recorded result: %d%n", stats.mismatches);
+        }
+        System.out.println("Opening cell, games, first player score");
+        for (int cell = 0; cell < 64; cell++) {
+            long games = stats.openingGames[cell];
+            if (games > 0) {
+                double score = (stats.openingFirstPlayerWins[cell] + 0.5 * stats.openingDraws[cell]) / games;
+                System.out.printf("(%d, %d), %d, %.3f%n", cell / 8, cell % 8, games, score);
+            }
+        }
+    }
+}
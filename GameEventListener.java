@@ -0,0 +1,99 @@
+/**
+ * Receives what happens on the board of a game, one call per event.
+ * The events carry only primitive values (the owner as a first player flag, the disc type as a DiscType code
+ * and the cell as a row and a column), so that firing them creates no object and formats nothing.
+ * Every method does nothing by default, a listener overrides the events it needs.
+ * The games start with the {@link #NONE} listener, see AnalyzableLogic.setGameEventListener.
+ */
+public interface GameEventListener {
+    /** A listener which ignores every event. */
+    GameEventListener NONE = new GameEventListener() {
+    };
+
+    /** The move was refused because the cell is taken or no line is closed. */
+    int REJECTED_INVALID = 0;
+    /** The move was refused because the player has no bomb left. */
+    int REJECTED_NO_BOMBS = 1;
+    /** The move was refused because the player has no unflippable disc left. */
+    int REJECTED_NO_UNFLIPPABLES = 2;
+
+    /**
+     * The board was set to the starting position, by setPlayers or reset.
+     * @param boardSize , the number of rows and columns of the board
+     */
+    default void gameStarted(int boardSize) {
+    }
+
+    /**
+     * A disc was placed, its flips follow.
+     * @param firstPlayer , true if the disc belongs to the first player
+     * @param type , the DiscType code of the disc
+     */
+    default void discPlaced(boolean firstPlayer, int type, int row, int col) {
+    }
+
+    /**
+     * A disc changed owner because of the move being made.
+     * @param firstPlayer , true if the disc now belongs to the first player
+     * @param type , the DiscType code of the disc
+     */
+    default void discFlipped(boolean firstPlayer, int type, int row, int col) {
+    }
+
+    /**
+     * A bomb was flipped and flips its neighbours.
+     * @param firstPlayer , true if the bomb now belongs to the first player
+     */
+    default void bombExploded(boolean firstPlayer, int row, int col) {
+    }
+
+    /**
+     * The move of the player is over, every flip of it was reported.
+     */
+    default void moveCompleted(boolean firstPlayer) {
+    }
+
+    /**
+     * A move was refused and the board was left unchanged.
+     * @param reason , one of the REJECTED_ constants
+     */
+    default void moveRejected(boolean firstPlayer, int type, int row, int col, int reason) {
+    }
+
+    /**
+     * The last move is being undone, this disc is removed and the discs it flipped are given back.
+     * @param firstPlayer , true if the removed disc belonged to the first player
+     * @param type , the DiscType code of the removed disc
+     */
+    default void moveUndone(boolean firstPlayer, int type, int row, int col) {
+    }
+
+    /**
+     * A disc flipped by the undone move was given back to its previous owner.
+     * @param firstPlayer , true if the disc belongs to the first player again
+     * @param type , the DiscType code of the disc
+     */
+    default void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+    }
+
+    /**
+     * The undo is over, every disc given back was reported.
+     */
+    default void undoCompleted() {
+    }
+
+    /**
+     * An undo was asked while no move was made.
+     */
+    default void undoRejected() {
+    }
+
+    /**
+     * The game is over.
+     * @param winner , 1 or 2 for the winning player, 0 for a draw
+     * @param firstPlayerDiscs , the discs counted for the first player
+     * @param secondPlayerDiscs , the discs counted for the second player
+     */
+    default void gameFinished(int winner, int firstPlayerDiscs, int secondPlayerDiscs) {
+    }
+}
@@ -2,10 +2,23 @@ import java.util.*;
 
 /**
  * This class represents the rule of the game and its logic.
+ * The board is square, 8x8 unless another even size is given to the constructor.
+ * The empty cells next to a disc (the frontier) are kept in a set updated by every placed and removed disc,
+ * only they can be legal moves, so finding the legal moves costs the size of the frontier instead of the board.
  */
-public class GameLogic implements PlayableLogic {
-    private static final int BOARD_SIZE = 8;
-    private Disc[][] board;
+public class GameLogic implements AnalyzableLogic {
+    public static final int DEFAULT_BOARD_SIZE = 8;
+    public static final int MAX_BOARD_SIZE = 64;
+    private final int boardSize;
+    // Cell encoding: 0 for an empty cell, otherwise the DiscType code + 1 in the two low bits
+    // and the side of the owner (0 for the first player) in the SIDE_BIT
+    private static final byte EMPTY = 0;
+    private static final int TYPE_MASK = 3;
+    private static final int SIDE_BIT = 4;
+    // The board, one byte per cell indexed by row * boardSize + col
+    private final byte[] cells;
+    // Disc objects handed out by getDiscAtPosition, their owner is synchronized lazily
+    private final Disc[] discViews;
     private Player player1;
     private Player player2;
     private boolean isFirstPlayerTurn;
@@ -14,39 +27,245 @@ public class GameLogic implements PlayableLogic {
             {-1, 0}, {1, 0}, {0, -1}, {0, 1},   // Up, Down, Left, Right
             {-1, -1}, {-1, 1}, {1, -1}, {1, 1}  // Diagonals
     };
-    private int firstPlayerCounter;
-    private int secondPlayerCounter;
-    private Stack<Disc[][]> boardHistory;
-    private  Stack<Move> moveHistory;
-    private Stack<List<Position>> flippedPositionsHistory = new Stack<>();
+    // The cell indexes around every cell, in the order of the directions array
+    private final int[][] neighbours;
+    // Discs on the board by side (0 for the first player) and DiscType code, kept up to date by every change
+    private final int[][] discCounts = new int[2][DiscType.COUNT];
+    // The frontier: the empty cells with an occupied neighbour, in no particular order.
+    // frontierSlots holds the index of every cell in frontier, -1 for the cells out of it,
+    // and occupiedNeighbours the number of discs around every cell
+    private final int[] frontier;
+    private final int[] frontierSlots;
+    private final byte[] occupiedNeighbours;
+    private int frontierSize;
+    private final int[] sortedFrontier; // Scratch space of sortFrontier
+
+    // Undo journal: for every move the placed cell and where its flip records start
+    private final int[] moveCells;
+    private final int[] moveFlipStarts;
+    private final long[] moveHashes; // Zobrist hash before the move
+    private int moveCount;
+    // Flip records of all the moves: the flipped cell, undoing a flip gives the disc to the other side again
+    private int[] flipCells;
+    private int flipCount;
+    private long hash; // Zobrist hash of the current position, see the Zobrist class
+    private GameEventListener listener = GameEventListener.NONE;
+    // Legal moves of the current position, null when they must be computed again
+    private List<Position> validMovesCache;
+    private long validMovesHits;
+    private long validMovesMisses;
+    // Scratch space of analyzeMoves: a cell holding the current stamp is flipped by the simulated move
+    private final int[] simulatedFlips;
+    // Bomb cascades: the bombs waiting to explode, and the bombs already queued, which hold the explosion stamp
+    private final int[] explosionQueue;
+    private final int[] detonated;
+    private int explosionStamp;
+    private final int[] lineCells; // Filled by scanLine
+    private int simulationStamp;
+    private int simulatedBombFlips; // Set by simulateMove, the flips caused by bomb explosions
+    private boolean simulatedClosedLine; // Set by simulateMove, a move is legal when it closes at least one line
 
 
     public GameLogic() {
-        this.board = new Disc[BOARD_SIZE][BOARD_SIZE];
+        this(DEFAULT_BOARD_SIZE);
+    }
+
+    /**
+     * @param boardSize , the number of rows and columns, an even number from 4 to MAX_BOARD_SIZE
+     */
+    public GameLogic(int boardSize) {
+        if (boardSize < 4 || boardSize > MAX_BOARD_SIZE || boardSize % 2 != 0) {
+            throw new IllegalArgumentException("The board size must be an even number from 4 to " + MAX_BOARD_SIZE);
+        }
+        this.boardSize = boardSize;
+        int cellCount = boardSize * boardSize;
+        cells = new byte[cellCount];
+        discViews = new Disc[cellCount];
+        neighbours = neighbours(boardSize);
+        frontier = new int[cellCount];
+        frontierSlots = new int[cellCount];
+        Arrays.fill(frontierSlots, -1);
+        occupiedNeighbours = new byte[cellCount];
+        sortedFrontier = new int[cellCount];
+        moveCells = new int[cellCount];
+        moveFlipStarts = new int[cellCount];
+        moveHashes = new long[cellCount];
+        flipCells = new int[cellCount * 4];
+        simulatedFlips = new int[cellCount];
+        explosionQueue = new int[cellCount];
+        detonated = new int[cellCount];
+        lineCells = new int[boardSize];
         this.isFirstPlayerTurn = true; // Set to true for first player's turn
-        moveHistory = new Stack<>();
-        boardHistory = new Stack<>();
-        flippedPositionsHistory = new Stack<>();
+    }
 
+    private static int[][] neighbours(int boardSize) {
+        int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+        int[][] result = new int[boardSize * boardSize][];
+        for (int cell = 0; cell < result.length; cell++) {
+            int[] around = new int[offsets.length];
+            int count = 0;
+            for (int[] offset : offsets) {
+                int row = cell / boardSize + offset[0];
+                int col = cell % boardSize + offset[1];
+                if (row >= 0 && row < boardSize && col >= 0 && col < boardSize) {
+                    around[count++] = row * boardSize + col;
+                }
+            }
+            result[cell] = Arrays.copyOf(around, count);
+        }
+        return result;
     }
 
     private void initializeBoard() {
         if (player1 == null || player2 == null) {
             throw new IllegalStateException("Players must be set before initializing the board.");
         }
+        clearBoard();
         // Place the starting four discs in the center of the board
-        int mid = BOARD_SIZE / 2;
-        board[mid - 1][mid - 1] = new SimpleDisc(player1); // Black
-        board[mid - 1][mid] = new SimpleDisc(player2); // White
-        board[mid][mid - 1] = new SimpleDisc(player2); // White
-        board[mid][mid] = new SimpleDisc(player1); // Black
+        int mid = boardSize / 2;
+        setCell(mid - 1, mid - 1, encode(0, DiscType.SIMPLE)); // Black
+        setCell(mid - 1, mid, encode(1, DiscType.SIMPLE)); // White
+        setCell(mid, mid - 1, encode(1, DiscType.SIMPLE)); // White
+        setCell(mid, mid, encode(0, DiscType.SIMPLE)); // Black
         placedDiscsCount = 4;
-        firstPlayerCounter = 0;
-        secondPlayerCounter = 0;
+        validMovesCache = null;
+        for (int[] counts : discCounts) {
+            Arrays.fill(counts, 0);
+        }
+        discCounts[0][DiscType.SIMPLE] = 2;
+        discCounts[1][DiscType.SIMPLE] = 2;
         player1.number_of_bombs = 3;
         player2.number_of_bombs = 3;
         player1.number_of_unflippedable = 2;
         player2.number_of_unflippedable = 2;
+        hash = computeHash();
+        listener.gameStarted(boardSize);
+    }
+
+    private void setCell(int row, int col, byte cell) {
+        cells[row * boardSize + col] = cell;
+        discViews[row * boardSize + col] = null;
+        occupy(row * boardSize + col);
+    }
+
+    /**
+     * This function's purpose is to empty the board, its frontier and the undo journal.
+     */
+    private void clearBoard() {
+        Arrays.fill(cells, EMPTY);
+        Arrays.fill(discViews, null);
+        Arrays.fill(occupiedNeighbours, (byte) 0);
+        for (int i = 0; i < frontierSize; i++) {
+            frontierSlots[frontier[i]] = -1;
+        }
+        frontierSize = 0;
+        moveCount = 0;
+        flipCount = 0;
+    }
+
+    /**
+     * This function's purpose is to update the frontier after a disc was placed on an empty cell:
+     * the cell leaves the frontier and its empty neighbours join it.
+     */
+    private void occupy(int cell) {
+        removeFromFrontier(cell);
+        for (int neighbour : neighbours[cell]) {
+            if (occupiedNeighbours[neighbour]++ == 0 && cells[neighbour] == EMPTY) {
+                addToFrontier(neighbour);
+            }
+        }
+    }
+
+    /**
+     * This function's purpose is to update the frontier after the disc of a cell was removed:
+     * the neighbours left without discs around them leave the frontier and the cell joins it if it has discs around.
+     */
+    private void vacate(int cell) {
+        for (int neighbour : neighbours[cell]) {
+            if (--occupiedNeighbours[neighbour] == 0 && cells[neighbour] == EMPTY) {
+                removeFromFrontier(neighbour);
+            }
+        }
+        if (occupiedNeighbours[cell] > 0) {
+            addToFrontier(cell);
+        }
+    }
+
+    private void addToFrontier(int cell) {
+        frontierSlots[cell] = frontierSize;
+        frontier[frontierSize++] = cell;
+    }
+
+    private void removeFromFrontier(int cell) {
+        int slot = frontierSlots[cell];
+        if (slot < 0) {
+            return;
+        }
+        // The last cell of the frontier takes the place of the removed one
+        int last = frontier[--frontierSize];
+        frontier[slot] = last;
+        frontierSlots[last] = slot;
+        frontierSlots[cell] = -1;
+    }
+
+    /**
+     * This function's purpose is to copy the frontier to sortedFrontier in row major order,
+     * the order in which the legal moves are reported.
+     * @return the number of frontier cells.
+     */
+    private int sortFrontier() {
+        System.arraycopy(frontier, 0, sortedFrontier, 0, frontierSize);
+        Arrays.sort(sortedFrontier, 0, frontierSize);
+        return frontierSize;
+    }
+
+    /**
+     * Get the number of empty cells next to a disc, the only cells where a move can be legal.
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    private static byte encode(int side, int type) {
+        return (byte) ((type + 1) | side << 2);
+    }
+
+    private static int typeOf(byte cell) {
+        return (cell & TYPE_MASK) - 1;
+    }
+
+    private static int sideOf(byte cell) {
+        return cell >> 2;
+    }
+
+    /**
+     * This function's purpose is to compute the Zobrist hash of the current position from scratch.
+     * locate_disc and undoLastMove keep the hash up to date incrementally instead.
+     */
+    private long computeHash() {
+        long result = isFirstPlayerTurn ? 0 : Zobrist.secondPlayerToMove();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != EMPTY) {
+                result ^= Zobrist.cell(cell, sideOf(cells[cell]), typeOf(cells[cell]));
+            }
+        }
+        result ^= Zobrist.bombsLeft(0, player1.getNumber_of_bombs()) ^ Zobrist.bombsLeft(1, player2.getNumber_of_bombs());
+        result ^= Zobrist.unflippablesLeft(0, player1.getNumber_of_unflippedable())
+                ^ Zobrist.unflippablesLeft(1, player2.getNumber_of_unflippedable());
+        return result;
+    }
+
+    /**
+     * Get the Zobrist hash of the current position. It covers the owner and type of every disc,
+     * the player to move and the special discs each player may still place.
+     */
+    public long getZobristHash() {
+        return hash;
+    }
+
+    @Override
+    public void setGameEventListener(GameEventListener listener) {
+        this.listener = listener == null ? GameEventListener.NONE : listener;
     }
 
     @Override
@@ -54,170 +273,194 @@ public class GameLogic implements PlayableLogic {
     Player currentPlayer = getCurrentPlayer();
 
     // Ensure correct ownership for special discs
-    if (disc instanceof BombDisc)
+    if (disc instanceof BombDisc && currentPlayer.getNumber_of_bombs() <= 0) // Check if there are still bomb discs to current player
     {
-        if (currentPlayer.getNumber_of_bombs() <= 0) // Check if there are still bomb discs to current player
-        {
-            System.out.println("No bombs left for " + (currentPlayer.isPlayerOne() ? "Player 1" : "Player 2"));
-            return false;
-        }
-        currentPlayer.reduce_bomb();
+        listener.moveRejected(currentPlayer.isPlayerOne(), DiscType.BOMB, a.getRow(), a.getCol(), GameEventListener.REJECTED_NO_BOMBS);
+        return false;
     }
-    else if (disc instanceof UnflippableDisc) // Check if there are still unflippable discs to current player
+    else if (disc instanceof UnflippableDisc && currentPlayer.getNumber_of_unflippedable() <= 0) // Check if there are still unflippable discs to current player
     {
-        if (currentPlayer.getNumber_of_unflippedable() <= 0)
-        {
-            System.out.println("No unflippables left for " + (currentPlayer.isPlayerOne() ? "Player 1" : "Player 2"));
-            return false;
-        }
-        currentPlayer.reduce_unflippedable();
+        listener.moveRejected(currentPlayer.isPlayerOne(), DiscType.UNFLIPPABLE, a.getRow(), a.getCol(), GameEventListener.REJECTED_NO_UNFLIPPABLES);
+        return false;
     }
 
     // Check move validity
     if (!isValidMove(a, disc))
     {
-        System.out.println("Move at " + a.getRow() + ", " + a.getCol() + " is invalid.");
+        listener.moveRejected(currentPlayer.isPlayerOne(), disc == null ? DiscType.SIMPLE : DiscType.of(disc),
+                a.getRow(), a.getCol(), GameEventListener.REJECTED_INVALID);
         return false;
     }
-    else // If move is valid we push it the stacks
-    {
-        moveHistory.push(new Move(a, disc));
-        boardHistory.push(copyBoard(this.board));
-
-    }
 
-    // Place the disc on the board
-    board[a.getRow()][a.getCol()] = disc;
-    System.out.printf("Player %d placed a %s in (%d, %d)\n",
-            currentPlayer.isPlayerOne() ? 1 : 2,
-            disc.getType(),
-            a.getRow(),
-            a.getCol()
-    );
+    // Open the journal entry of this move
+    int cell = a.getRow() * boardSize + a.getCol();
+    moveCells[moveCount] = cell;
+    moveFlipStarts[moveCount] = flipCount;
+    moveHashes[moveCount] = hash;
+    moveCount++;
 
+    // The special disc is taken from the inventory only once the move is known to be valid
+    int side = sideOf(currentPlayer);
+    if (disc instanceof BombDisc)
+    {
+        hash ^= Zobrist.bombsLeft(side, currentPlayer.getNumber_of_bombs());
+        currentPlayer.reduce_bomb();
+        hash ^= Zobrist.bombsLeft(side, currentPlayer.getNumber_of_bombs());
+    }
+    else if (disc instanceof UnflippableDisc)
+    {
+        hash ^= Zobrist.unflippablesLeft(side, currentPlayer.getNumber_of_unflippedable());
+        currentPlayer.reduce_unflippedable();
+        hash ^= Zobrist.unflippablesLeft(side, currentPlayer.getNumber_of_unflippedable());
+    }
 
-    List<Position> flippedPositionsForCurrentMove = new ArrayList<>();
-    // Flip opponent discs and collect their positions
+    // Place the disc on the board, the disc object itself is kept as the view of the cell
+    int owner = sideOf(disc.get_owner());
+    int type = DiscType.of(disc);
+    cells[cell] = encode(owner, type);
+    discViews[cell] = disc;
+    occupy(cell);
+    discCounts[owner][type]++;
+    hash ^= Zobrist.cell(cell, owner, type);
+    listener.discPlaced(currentPlayer.isPlayerOne(), type, a.getRow(), a.getCol());
+
+    // Flip opponent discs, every change of owner is recorded in the journal and reported to the listener
+    nextExplosionStamp();
     for (int[] direction : directions)
     {
+        // Get the cells to flip in this direction
+        int length = scanLine(a.getRow(), a.getCol(), owner, direction);
 
-        // Get a list of all positions to flip
-        List<Position> discsToFlip = getDiscsToFlipInDirection(a, disc, direction);
-
-        // Iterate between all positions
-        for (Position position : discsToFlip)
+        // Iterate between all cells
+        for (int i = 0; i < length; i++)
         {
-            Disc discToFlip = board[position.getRow()][position.getCol()];
-            flippedPositionsForCurrentMove.add(position); // add flipped position for undo print
+            int typeToFlip = typeOf(cells[lineCells[i]]);
 
             // Handling bomb discs explosion
-            if (discToFlip instanceof BombDisc)
+            if (typeToFlip == DiscType.BOMB)
             {
-                flipSurroundingDiscs(new Position(position.getRow(), position.getCol()), disc.get_owner(), flippedPositionsForCurrentMove);
-                discToFlip.set_owner(disc.get_owner()); // Flip the ownership of the BombDisc itself
+                flipDisc(lineCells[i], owner); // Flip the ownership of the BombDisc itself
+                flipSurroundingDiscs(lineCells[i], owner);
             }
-            else if(discToFlip instanceof SimpleDisc)
+            else if (typeToFlip == DiscType.SIMPLE)
             {
                 // Flip the current disc
-                discToFlip.set_owner(disc.get_owner());
+                flipDisc(lineCells[i], owner);
             }
         }
-
-        // Push flipped positions to the history stack
-        flippedPositionsHistory.push(removeDuplicatesByRowAndCol(flippedPositionsForCurrentMove));
     }
-    // initiate print sequence BIP BOP
-    List<Position> finalPositionsToPrint = removeDuplicatesByRowAndCol(flippedPositionsForCurrentMove);
-
-    for (Position position : finalPositionsToPrint)
+    listener.moveCompleted(currentPlayer.isPlayerOne());
+    if (EngineMetrics.ENABLED)
     {
-        Disc discToPrint = board[position.getRow()][position.getCol()];
-        // Printing current player flipping
-        System.out.printf("Player %d flipped the %s in (%d, %d)\n",
-                currentPlayer.isPlayerOne() ? 1 : 2,
-                discToPrint.getType(),
-                position.getRow(),
-                position.getCol()
-        );
-    }
-    System.out.println(); // Print space between moves
+        EngineMetrics.movePlayed(flipCount - moveFlipStarts[moveCount - 1]);
+    }
     // Switch turn
     isFirstPlayerTurn = !isFirstPlayerTurn;
+    validMovesCache = null;
+    hash ^= Zobrist.secondPlayerToMove();
     placedDiscsCount++;
     return true;
 }
 
     /**
-     * This function makes a deep copy of the board and takes care
-     * of assigning owners to discs and discs types
-     * @param board , the current board.
+     * This function's purpose is to give a disc to a side and to record the flip in the undo journal.
+     * Discs which already belong to the side are left untouched.
+     * @param cell , the cell index of the disc
+     * @param owner , the side of the new owner
      */
-    private Disc[][] copyBoard(Disc[][] board) {
-        Disc[][] temp = new Disc[BOARD_SIZE][BOARD_SIZE];
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] != null) {
-                    // Use the appropriate subclass copy constructor
-                    Disc original = board[i][j];
-                    if (original instanceof SimpleDisc) {
-                        temp[i][j] = new SimpleDisc(original.get_owner());
-                    } else if (original instanceof BombDisc) {
-                        temp[i][j] = new BombDisc(original.get_owner());
-                    } else if (original instanceof UnflippableDisc) {
-                        temp[i][j] = new UnflippableDisc(original.get_owner());
-                    }
-                } else {
-                    temp[i][j] = null;
-                }
-            }
+    private void flipDisc(int cell, int owner) {
+        byte disc = cells[cell];
+        if (sideOf(disc) == owner)
+        {
+            return;
         }
-        return temp;
+        if (flipCount == flipCells.length)
+        {
+            flipCells = Arrays.copyOf(flipCells, flipCount * 2);
+        }
+        flipCells[flipCount++] = cell;
+        cells[cell] = (byte) (disc ^ SIDE_BIT);
+        int type = typeOf(disc);
+        discCounts[1 - owner][type]--;
+        discCounts[owner][type]++;
+        hash ^= Zobrist.flip(cell, type);
+        listener.discFlipped(owner == 0, type, cell / boardSize, cell % boardSize);
+    }
+
+    private int sideOf(Player player) {
+        return player == player1 ? 0 : 1;
+    }
+
+    private Player playerOf(int side) {
+        return side == 0 ? player1 : player2;
     }
 
 
     /**
      * This function's purpose it to implement bomb explosion and case handling
-     * of multiple explosions by recourse.
-     * @param bombPosition , a position which contains a bomb disc
-     * @param owner , the current player
-     * @param flippedPositions , list of all discs that need to explode (preserved in recourse)
+     * of multiple explosions. The bombs flipped by the explosion wait in a worklist
+     * and explode in turn; the detonated stamps make every bomb explode once per move,
+     * so the work is bounded by the number of flipped discs. Every flip is recorded in the undo journal.
+     * @param bombCell , the cell index of a bomb disc
+     * @param owner , the side of the current player
      *
      */
-    private void flipSurroundingDiscs(Position bombPosition, Player owner, List<Position> flippedPositions) {
-        List<Position> bombPositions = new ArrayList<>();
-
-        for (int[] direction : directions)
+    private void flipSurroundingDiscs(int bombCell, int owner) {
+        int head = 0;
+        int tail = enqueueBomb(bombCell, 0);
+        int rounds = 0; // The bombs before roundEnd were set off by the same round of explosions
+        int roundEnd = 0;
+        while (head < tail)
         {
-            int row = bombPosition.getRow() + direction[0];
-            int col = bombPosition.getCol() + direction[1];
-
-            // Check bounds
-            if (row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE)
+            if (head == roundEnd)
             {
-                Position adjacentPosition = new Position(row, col);
-                Disc adjacentDisc = board[row][col];
-
-                if (adjacentDisc != null && !adjacentDisc.get_owner().equals(owner))
+                rounds++;
+                roundEnd = tail;
+            }
+            int cell = explosionQueue[head++];
+            listener.bombExploded(owner == 0, cell / boardSize, cell % boardSize);
+            for (int neighbour : neighbours[cell])
+            {
+                byte adjacentDisc = cells[neighbour];
+                if (adjacentDisc != EMPTY && sideOf(adjacentDisc) != owner)
                 {
                     // Flip the disc
-                    adjacentDisc.set_owner(owner);
-                    flippedPositions.add(adjacentPosition); // Track this flip
+                    flipDisc(neighbour, owner);
 
                     // If the adjacent disc is another BombDisc, trigger its explosion
-                    if (adjacentDisc instanceof BombDisc)
+                    if (typeOf(adjacentDisc) == DiscType.BOMB)
                     {
-                        bombPositions.add(adjacentPosition);
+                        tail = enqueueBomb(neighbour, tail);
                     }
                 }
             }
         }
-        // Process affected BombDiscs recursively after the initial pass
-        for (Position bombPos : bombPositions)
+        if (EngineMetrics.ENABLED && tail > 0)
         {
+            EngineMetrics.bombCascade(tail, rounds);
+        }
+    }
+
+    /**
+     * This function's purpose is to add a bomb to the worklist unless it already exploded during this move.
+     * Every move takes a new explosion stamp, so nothing has to be cleared between moves.
+     * @return the new length of the worklist.
+     */
+    private int enqueueBomb(int bombCell, int tail) {
+        if (detonated[bombCell] == explosionStamp) {
+            return tail;
+        }
+        detonated[bombCell] = explosionStamp;
+        explosionQueue[tail] = bombCell;
+        return tail + 1;
+    }
 
-            flipSurroundingDiscs(bombPos, owner, flippedPositions);
-            //bombFlippedPositionsHistory.push(new ArrayList<>()); // Prepare for nested flips
+    private void nextExplosionStamp() {
+        if (explosionStamp == Integer.MAX_VALUE) {
+            Arrays.fill(detonated, 0);
+            explosionStamp = 0;
         }
+        explosionStamp++;
     }
 
     /**
@@ -235,153 +478,261 @@ public class GameLogic implements PlayableLogic {
         }
 
         // Check if the cell is empty
-        if (board[a.getRow()][a.getCol()] != null) {
+        if (cells[a.getRow() * boardSize + a.getCol()] != EMPTY) {
             //System.out.println("Position already occupied");
             return false;
         }
 
-        List<Position> collectionOfDiscsToFlip = new ArrayList<>();
-
-        // Check each direction
-        for (int[] direction : directions) {
-            List<Position> discsToFlip = getDiscsToFlipInDirection(a, disc, direction);
-
-            // Only add to flip list if there are discs to flip in this direction
-            if (!discsToFlip.isEmpty()) {
-                collectionOfDiscsToFlip.addAll(discsToFlip);
-            }
-        }
-
-        // Check if we have any discs to flip in total
-        if (collectionOfDiscsToFlip.isEmpty()) {
-            //System.out.println("No discs to flip, move invalid");
-            return false;
-        }
-
-        return true;
+        // The move is valid when at least one direction has discs to flip
+        return closesLine(a.getRow(), a.getCol(), sideOf(disc.get_owner()));
     }
 
 
+    /**
+     * The board keeps bytes, so the disc of a cell is a view: the disc object placed by locate_disc,
+     * or one created on the first call for the starting discs. Its owner is updated when it is handed out.
+     */
     @Override
     public Disc getDiscAtPosition(Position position) {
-        return board[position.row()][position.col()];
+        int cell = position.row() * boardSize + position.col();
+        if (cells[cell] == EMPTY) {
+            return null;
+        }
+        Player owner = playerOf(sideOf(cells[cell]));
+        Disc disc = discViews[cell];
+        if (disc == null) {
+            disc = DiscType.newDisc(typeOf(cells[cell]), owner);
+            discViews[cell] = disc;
+        } else if (disc.get_owner() != owner) {
+            disc.set_owner(owner);
+        }
+        return disc;
     }
 
     @Override
     public int getBoardSize() {
-        return BOARD_SIZE;
+        return boardSize;
     }
 
+    /**
+     * The legal moves are computed once per position and kept until the board changes
+     * (locate_disc, undoLastMove, reset or setPlayers), so the returned list cannot be modified.
+     */
     @Override
     public List<Position> ValidMoves() {
+        if (validMovesCache != null)
+        {
+            validMovesHits++;
+            return validMovesCache;
+        }
+        validMovesMisses++;
         List<Position> validMoves = new ArrayList<>();
-        Disc currentDisc = new SimpleDisc(getCurrentPlayer()); // Use the current player's disc consistently
-
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Position potentialPosition = new Position(row, col);
-                if (isValidMove(potentialPosition, currentDisc)) {
-                    validMoves.add(potentialPosition);
-                }
+        int side = currentSide(); // Use the current player's disc consistently
+
+        int count = sortFrontier(); // Only a cell next to a disc can close a line
+        for (int i = 0; i < count; i++) {
+            int row = sortedFrontier[i] / boardSize;
+            int col = sortedFrontier[i] % boardSize;
+            if (closesLine(row, col, side)) {
+                validMoves.add(Position.of(row, col));
             }
         }
-        return validMoves;
+        validMovesCache = Collections.unmodifiableList(validMoves);
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.movesGenerated(validMoves.size());
+        }
+        return validMovesCache;
+    }
+
+    /**
+     * Get the number of ValidMoves calls answered from the cache.
+     */
+    public long getValidMovesCacheHits() {
+        return validMovesHits;
+    }
+
+    /**
+     * Get the number of ValidMoves calls which had to compute the legal moves.
+     */
+    public long getValidMovesCacheMisses() {
+        return validMovesMisses;
     }
 
 
+    /**
+     * The discs are counted with the rules of locate_disc: unflippable discs in a line are not counted,
+     * and every disc flipped by a chain of bomb explosions is counted once. An occupied cell flips nothing.
+     */
     @Override
     public int countFlips(Position a) {
-        Disc currentDisc = new SimpleDisc(getCurrentPlayer()); // Current player's disc
-        ArrayList<Position> uniqueFlippedPositions = new ArrayList<>(); // Track unique flipped positions
+        if (cells[a.getRow() * boardSize + a.getCol()] != EMPTY)
+        {
+            return 0;
+        }
+        return simulateMove(a.getRow(), a.getCol(), currentSide());
+    }
+
+    /**
+     * This function's purpose is to analyze every legal move of the current player in one sweep of the frontier.
+     * The discs of both players are read from the counters, and every frontier cell is simulated on the board
+     * itself with the flip marks of simulateMove, so that no object is created.
+     * @param analysis , the analysis to fill
+     */
+    @Override
+    public void analyzeMoves(MoveAnalysis analysis) {
+        int mover = currentSide();
+        int moverDiscs = getDiscCount(mover == 0);
+        int opponentDiscs = getDiscCount(mover != 0);
+        analysis.clear();
+        int count = sortFrontier();
+        for (int i = 0; i < count; i++) {
+            int cell = sortedFrontier[i];
+            int flips = simulateMove(cell / boardSize, cell % boardSize, mover);
+            if (simulatedClosedLine) {
+                analysis.add(cell, flips, simulatedBombFlips, moverDiscs + 1 + flips - (opponentDiscs - flips));
+            }
+        }
+    }
 
+    /**
+     * This function's purpose is to generate the typed moves of the current player from the frontier, or from
+     * the ValidMoves cache when the position's moves are already known, without creating objects.
+     * @param moves , the moves to fill
+     */
+    @Override
+    public void generateTypedMoves(TypedMoves moves) {
+        Player mover = getCurrentPlayer();
+        boolean bombs = mover.getNumber_of_bombs() > 0;
+        boolean unflippables = mover.getNumber_of_unflippedable() > 0;
+        moves.clear();
+        if (validMovesCache != null) {
+            for (Position move : validMovesCache) {
+                moves.add(move.row() * boardSize + move.col(), bombs, unflippables);
+            }
+            return;
+        }
+        int side = currentSide();
+        int count = sortFrontier();
+        for (int i = 0; i < count; i++) {
+            int cell = sortedFrontier[i];
+            if (closesLine(cell / boardSize, cell % boardSize, side)) {
+                moves.add(cell, bombs, unflippables);
+            }
+        }
+    }
+
+    /**
+     * This function's purpose is to count the discs a move would flip, without changing the board.
+     * The directions are resolved one after the other like in locate_disc: a flipped disc counts as the
+     * mover's for the next directions, unflippable discs close a line but are not flipped by it, and a
+     * flipped bomb flips every neighbour which is not the mover's, the bombs among them exploding in turn.
+     * @param row , the row of the empty cell
+     * @param col , the column of the empty cell
+     * @param mover , the side of the player placing the disc
+     * @return the number of flipped discs, see simulatedBombFlips and simulatedClosedLine for the rest.
+     */
+    private int simulateMove(int row, int col, int mover) {
+        int stamp = nextStamp();
+        int flips = 0;
+        simulatedBombFlips = 0;
+        nextExplosionStamp();
+        simulatedClosedLine = false;
         for (int[] direction : directions)
         {
-            // Get discs to flip in this direction
-            List<Position> discsToFlip = getDiscsToFlipInDirection(a, currentDisc, direction);
-
-            // Check for BombDiscs in the flip sequence and process them
-            for (Position position : discsToFlip)
+            int length = 0;
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r >= 0 && r < boardSize && c >= 0 && c < boardSize && cells[r * boardSize + c] != EMPTY
+                    && !isMoverAfterSimulation(r * boardSize + c, mover, stamp))
+            {
+                length++;
+                r += direction[0];
+                c += direction[1];
+            }
+            if (length == 0 || r < 0 || r >= boardSize || c < 0 || c >= boardSize || cells[r * boardSize + c] == EMPTY)
+            {
+                continue; // The line is not closed by a disc of the mover
+            }
+            simulatedClosedLine = true;
+            r = row + direction[0];
+            c = col + direction[1];
+            for (int i = 0; i < length; i++, r += direction[0], c += direction[1])
             {
-                Disc discToFlip = board[position.getRow()][position.getCol()];
-                if (discToFlip instanceof BombDisc)
+                if (typeOf(cells[r * boardSize + c]) != DiscType.UNFLIPPABLE)
                 {
-                    // Simulate bomb-triggered flips and add to the set
-                    simulateBombFlips(position, currentDisc.get_owner(), uniqueFlippedPositions);
+                    simulatedFlips[r * boardSize + c] = stamp;
+                    flips++;
                 }
-                if(!uniqueFlippedPositions.contains(position))
+            }
+            // The bombs of the line explode once the whole line is flipped, so a cell of the line
+            // is never counted as a flip of an explosion
+            r = row + direction[0];
+            c = col + direction[1];
+            for (int i = 0; i < length; i++, r += direction[0], c += direction[1])
+            {
+                if (typeOf(cells[r * boardSize + c]) == DiscType.BOMB)
                 {
-                    uniqueFlippedPositions.add(position);
+                    flips += simulateExplosion(r * boardSize + c, mover, stamp);
                 }
             }
         }
-
-        return removeDuplicatesByRowAndCol(uniqueFlippedPositions).size(); // Return the total number of unique flipped discs
+        return flips;
     }
 
     /**
-     * This is a simple helper function that removes duplicated positions.
-     * @param positions , a list of positions to compare dupes
-     *
+     * This function's purpose is to mark the discs flipped by an exploding bomb and by the bombs it triggers,
+     * with the same worklist and detonated stamps as flipSurroundingDiscs.
+     * @return the number of newly flipped discs.
      */
-    public List<Position> removeDuplicatesByRowAndCol(List<Position> positions)
-    {
-        Set<String> uniqueKeys = new HashSet<>(); // To track unique "row,col" keys
-        List<Position> uniquePositions = new ArrayList<>();
-
-        for (Position position : positions)
+    private int simulateExplosion(int bombCell, int mover, int stamp) {
+        int flips = 0;
+        int head = 0;
+        int tail = enqueueBomb(bombCell, 0);
+        while (head < tail)
         {
-            // Create a unique key based on row and column values
-            String key = position.getRow() + "," + position.getCol();
-
-            // Add the position to the result if the key is not already in the set
-            if (uniqueKeys.add(key))
+            int cell = explosionQueue[head++];
+            for (int neighbour : neighbours[cell])
             {
-                uniquePositions.add(position);
+                if (cells[neighbour] != EMPTY && !isMoverAfterSimulation(neighbour, mover, stamp))
+                {
+                    simulatedFlips[neighbour] = stamp;
+                    flips++;
+                    if (typeOf(cells[neighbour]) == DiscType.BOMB)
+                    {
+                        tail = enqueueBomb(neighbour, tail);
+                    }
+                }
             }
         }
-
-        return uniquePositions;
+        simulatedBombFlips += flips;
+        return flips;
     }
 
     /**
-     * This function's purpose it to simulate bomb explosion (and case handling
-     * of multiple explosions by recourse) for countFlips method.
-     * @param bombPosition , a position which contains a bomb disc
-     * @param owner , the current player
-     * @param flippedPositions , list of all discs that need to explode (preserved in recourse)
-     *
+     * Get a stamp which no cell of simulatedFlips holds yet.
      */
-    private void simulateBombFlips(Position bombPosition, Player owner, ArrayList<Position> flippedPositions) {
-        List<Position> bombTriggeredPositions = new ArrayList<>();
-
-        for (int[] direction : directions)
+    private int nextStamp() {
+        if (simulationStamp == Integer.MAX_VALUE)
         {
-            int row = bombPosition.getRow() + direction[0];
-            int col = bombPosition.getCol() + direction[1];
-
-            // Check bounds
-            if (row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE) {
-                Position adjacentPosition = new Position(row, col);
-                Disc adjacentDisc = board[row][col];
-
-                if (adjacentDisc != null && !adjacentDisc.get_owner().equals(owner)) {
-                    // Add to flipped positions only if not already added
-                    if (flippedPositions.add(adjacentPosition)) {
-                        // If the adjacent disc is another BombDisc, queue it for further explosions
-                        if (adjacentDisc instanceof BombDisc && !flippedPositions.contains(adjacentPosition)) {
-
-                            bombTriggeredPositions.add(adjacentPosition);
-                        }
-                    }
-                }
-            }
+            Arrays.fill(simulatedFlips, 0);
+            simulationStamp = 0;
         }
+        return ++simulationStamp;
+    }
 
-        // Recursively process all bomb-triggered positions
-        for (Position triggeredPosition : bombTriggeredPositions) {
-            simulateBombFlips(triggeredPosition, owner, flippedPositions);
-        }
+    private boolean isMoverAfterSimulation(int cell, int mover, int stamp) {
+        return sideOf(cells[cell]) == mover || simulatedFlips[cell] == stamp;
+    }
 
+    /**
+     * This is a simple helper function that removes duplicated positions.
+     * @param positions , a list of positions to compare dupes
+     *
+     */
+    public List<Position> removeDuplicatesByRowAndCol(List<Position> positions)
+    {
+        // Positions are compared by value, so a set keeps the first of each cell
+        return new ArrayList<>(new LinkedHashSet<>(positions));
     }
 
     @Override
@@ -407,176 +758,182 @@ public class GameLogic implements PlayableLogic {
         return isFirstPlayerTurn;
     }
 
+    /**
+     * The game is over when the board is full or when the player to move has no valid move.
+     * The discs are read from the counters, and a draw gives no win.
+     */
     @Override
     public boolean isGameFinished() {
         // If the board is full, the game is finished
-        if (placedDiscsCount == BOARD_SIZE * BOARD_SIZE || ValidMoves().isEmpty())
+        if (placedDiscsCount == boardSize * boardSize || ValidMoves().isEmpty())
         {
-            for (int row = 0; row < BOARD_SIZE; row++)
-            {
-                for (int col = 0; col < BOARD_SIZE; col++)
-                {
-                    Position potentialPosition = new Position(row, col);
-                    Disc disc = getDiscAtPosition(potentialPosition);
-                    if(getDiscAtPosition(potentialPosition) == null)
-                    {
-                        break;
-                    }
-                    else if(disc.get_owner().equals(getCurrentPlayer()))
-                        firstPlayerCounter++;
-
-                    else {secondPlayerCounter++;}
-                }
-            }
-            if(firstPlayerCounter > secondPlayerCounter)
+            int firstPlayerDiscs = getDiscCount(true);
+            int secondPlayerDiscs = getDiscCount(false);
+            int winner = 0;
+            if (firstPlayerDiscs > secondPlayerDiscs)
             {
                 getFirstPlayer().addWin();
-                return true;
+                winner = 1;
             }
-            else
+            else if (secondPlayerDiscs > firstPlayerDiscs)
             {
                 getSecondPlayer().addWin();
-                return true;
+                winner = 2;
             }
+            listener.gameFinished(winner, firstPlayerDiscs, secondPlayerDiscs);
+            return true;
         }
         return false;
     }
 
+    @Override
+    public int getDiscCount(boolean firstPlayer) {
+        int[] counts = discCounts[firstPlayer ? 0 : 1];
+        return counts[DiscType.SIMPLE] + counts[DiscType.BOMB] + counts[DiscType.UNFLIPPABLE];
+    }
+
+    @Override
+    public int getDiscCount(boolean firstPlayer, int type) {
+        return discCounts[firstPlayer ? 0 : 1][type];
+    }
+
+    @Override
+    public int getEmptyCellCount() {
+        return boardSize * boardSize - placedDiscsCount;
+    }
+
     @Override
     public void reset() {
-        board = new Disc[BOARD_SIZE][BOARD_SIZE];
         setPlayers(player1, player2);
         placedDiscsCount = 4;
-        initializeBoard();
-        moveHistory.clear();
-        boardHistory.clear();
         isFirstPlayerTurn = true;
         player1.number_of_bombs = 3;
         player2.number_of_bombs = 3;
         player1.number_of_unflippedable = 2;
         player2.number_of_unflippedable = 2;
+        hash = computeHash();
     }
 
 @Override
 public void undoLastMove() {
-    if (boardHistory.isEmpty() || moveHistory.isEmpty() || flippedPositionsHistory.isEmpty())
+    if (moveCount == 0)
     {
-        System.out.println("No previous move available to undo.");
+        listener.undoRejected();
         return;
     }
 
-    System.out.println("Undoing last move:");
-
-    // Pop the last move from the history
-    Move lastMove = moveHistory.pop();
-    Position pos = lastMove.getPosition();
-    Disc disc = getDiscAtPosition(pos);
+    // Pop the last move from the journal
+    moveCount--;
+    int cell = moveCells[moveCount];
+    int owner = sideOf(cells[cell]);
+    int type = typeOf(cells[cell]);
 
     // Returning special discs number to its owner
-    if (disc instanceof UnflippableDisc)
+    if (type == DiscType.UNFLIPPABLE)
     {
-        disc.get_owner().number_of_unflippedable++;
+        playerOf(owner).number_of_unflippedable++;
     }
-    if(disc instanceof BombDisc)
+    if (type == DiscType.BOMB)
     {
-        disc.get_owner().number_of_bombs++;
+        playerOf(owner).number_of_bombs++;
     }
 
-    // Printing the removal of last placed disc
-    System.out.printf("\tUndo: removing %s from (%d, %d)\n", disc.getType(), pos.getRow(), pos.getCol());
+    listener.moveUndone(owner == 0, type, cell / boardSize, cell % boardSize);
+    cells[cell] = EMPTY;
+    discViews[cell] = null;
+    vacate(cell);
+    discCounts[owner][type]--;
 
-    // Revert flipped discs for printing purpose
-    List<Position> lastFlippedPositions = flippedPositionsHistory.pop();
-    for (Position flippedPos : lastFlippedPositions)
+    // Replay the flip records of the move in reverse, giving every disc to its previous side back
+    int firstFlip = moveFlipStarts[moveCount];
+    for (int i = flipCount - 1; i >= firstFlip; i--)
     {
-        Disc flippedDisc = board[flippedPos.getRow()][flippedPos.getCol()];
-        if (flippedDisc != null)
-        {
-            flippedDisc.set_owner(flippedDisc.get_owner().equals(player1) ? player2 : player1);
-            System.out.printf("\tUndo: flipping back %s in (%d, %d)\n",
-                    flippedDisc.getType(),
-                    flippedPos.getRow(),
-                    flippedPos.getCol()
-            );
-        }
+        byte flippedDisc = (byte) (cells[flipCells[i]] ^ SIDE_BIT);
+        cells[flipCells[i]] = flippedDisc;
+        int flippedType = typeOf(flippedDisc);
+        discCounts[1 - sideOf(flippedDisc)][flippedType]--;
+        discCounts[sideOf(flippedDisc)][flippedType]++;
+        listener.discFlippedBack(sideOf(flippedDisc) == 0, flippedType,
+                flipCells[i] / boardSize, flipCells[i] % boardSize);
     }
-    System.out.println(); // Print space between moves
-
-    // Reverting board state from stack
-    Disc[][] lastBoard = boardHistory.pop();
-    for(int i=0;i<BOARD_SIZE;i++)
+    flipCount = firstFlip;
+    listener.undoCompleted();
+    if (EngineMetrics.ENABLED)
     {
-        for(int j=0;j<BOARD_SIZE;j++)
-        {
-            this.board[i][j] = lastBoard[i][j];
-
-        }
+        EngineMetrics.undone();
     }
+
     // Revert game state
     isFirstPlayerTurn = !isFirstPlayerTurn;
+    validMovesCache = null;
+    hash = moveHashes[moveCount];
     placedDiscsCount--;
 
 }
 
     /**
      * This function's purpose is to implement discs flipping logic in one specific direction without handling bombs explosion.
-     * @param start , a position to start checking nearly positions to flip nearly discs
-     * @param disc , disc object which contains its type and owner
-     * @param direction , an array of all directions that are needed to be checked (only one direction is set at a call)
-     *
+     * The cells of the discs to flip are written to lineCells, from the nearest to the farthest.
+     * @param startRow , the row of the cell to start checking nearly positions to flip nearly discs
+     * @param startCol , the column of that cell
+     * @param owner , the side of the player placing the disc
+     * @param direction , one of the directions (only one direction is set at a call)
+     * @return the number of discs to flip, 0 when the line is not closed by a disc of the owner.
      */
-    //This method returns list of all the positions of discs on the board that needs to be flipped.
-    private List<Position> getDiscsToFlipInDirection(Position start, Disc disc, int[] direction) {
-        // If the initial disc is null, we can't proceed in this direction
-        if (disc == null) {
-            System.out.println("Starting disc is null, skipping this direction.");
-            return new ArrayList<>();
-        }
-
-        List<Position> discsToFlip = new ArrayList<>();
-        int row = start.getRow() + direction[0];
-        int col = start.getCol() + direction[1];
+    private int scanLine(int startRow, int startCol, int owner, int[] direction) {
+        int length = 0;
+        int row = startRow + direction[0];
+        int col = startCol + direction[1];
 
         // While checks for board boundaries
-        while (row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE)
+        while (row >= 0 && row < boardSize && col >= 0 && col < boardSize)
         {
+            byte currentDisc = cells[row * boardSize + col];
 
-            Disc currentDisc = board[row][col];
-
-            // If the initial disc is null, we can't proceed in this direction
-            if (currentDisc == null)
+            // An empty cell ends the line before it is closed
+            if (currentDisc == EMPTY)
             {
-                return new ArrayList<>(); // Return empty list if there's a null
+                return 0;
             }
 
             // Check if current disc is an opponent's disc
-            if (!currentDisc.get_owner().equals(disc.get_owner()))
+            if (sideOf(currentDisc) != owner)
             {
-                // We found a matching disc after opponent discs, so the move is valid in this direction
-                discsToFlip.add(new Position(row, col));
+                lineCells[length++] = row * boardSize + col;
             }
             else
             {
-                if (!discsToFlip.isEmpty())
-                {
-                    return discsToFlip;
-                }
-                else
-                {
-                    return new ArrayList<>();
-                }
+                // We found a matching disc after opponent discs, so the move is valid in this direction
+                return length;
             }
             // Continuing in the same direction until we reach a friendly disc or boundary
             row += direction[0];
             col += direction[1];
         }
-        // No valid flipping sequence found, return an empty list
-        return new ArrayList<>();
+        // No valid flipping sequence found
+        return 0;
     }
+
+    /**
+     * This function's purpose is to check whether a disc of the player on an empty cell would close a line.
+     */
+    private boolean closesLine(int row, int col, int player) {
+        for (int[] direction : directions) {
+            if (scanLine(row, col, player, direction) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * This function's purpose is to return current player.
      */
     private Player getCurrentPlayer() {
         return isFirstPlayerTurn() ? player1 : player2;
     }
+
+    private int currentSide() {
+        return isFirstPlayerTurn ? 0 : 1;
+    }
 }
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the structures of GameLogic itself: the ValidMoves cache, the move frontier on large boards and the
+ * allocation-free flip scans. They are kept out of GameLogicTest, whose tests also run against BitboardGameLogic.
+ */
+class GameLogicEngineTest {
+
+    @Test
+    void validMovesAreComputedOncePerPly() {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        List<Position> moves = game.ValidMoves();
+        assertSame(moves, game.ValidMoves(), "The same ply should be answered from the cache.");
+        assertFalse(game.isGameFinished());
+        assertEquals(1, game.getValidMovesCacheMisses());
+        assertEquals(2, game.getValidMovesCacheHits());
+
+        assertTrue(game.locate_disc(moves.get(0), new SimpleDisc(game.getFirstPlayer())));
+        game.ValidMoves();
+        assertEquals(2, game.getValidMovesCacheMisses(), "A move should clear the cache.");
+        game.undoLastMove();
+        assertEquals(moves.size(), game.ValidMoves().size());
+        assertEquals(3, game.getValidMovesCacheMisses(), "An undo should clear the cache.");
+    }
+
+    @Test
+    void frontierMovesMatchAFullScan() {
+        GameLogic game = new GameLogic(16);
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        Random rand = new Random(11);
+        int size = game.getBoardSize();
+        for (int ply = 0; !game.ValidMoves().isEmpty(); ply++) {
+            Player player = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            List<Position> expected = new ArrayList<>();
+            int frontier = 0;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (game.isValidMove(Position.of(row, col), new SimpleDisc(player))) {
+                        expected.add(Position.of(row, col));
+                    }
+                    if (game.getDiscAtPosition(Position.of(row, col)) == null && hasDiscAround(game, row, col)) {
+                        frontier++;
+                    }
+                }
+            }
+            assertEquals(expected, game.ValidMoves(), "The frontier should give the moves of a full scan at ply " + ply);
+            assertEquals(frontier, game.getFrontierSize());
+
+            List<Position> moves = game.ValidMoves();
+            Position move = moves.get(rand.nextInt(moves.size()));
+            Disc disc = ply % 9 == 0 ? new BombDisc(player) : ply % 13 == 0 ? new UnflippableDisc(player) : new SimpleDisc(player);
+            assertTrue(game.locate_disc(move, disc) || game.locate_disc(move, new SimpleDisc(player)));
+            if (ply % 5 == 0) {
+                game.undoLastMove();
+                assertTrue(game.locate_disc(move, new SimpleDisc(player)));
+            }
+        }
+        assertEquals(size * size, game.getEmptyCellCount() + game.getDiscCount(true) + game.getDiscCount(false));
+    }
+
+    private static boolean hasDiscAround(PlayableLogic game, int row, int col) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(game.getBoardSize() - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(game.getBoardSize() - 1, col + 1); c++) {
+                if (game.getDiscAtPosition(Position.of(r, c)) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void hotPathsDoNotAllocate() {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        Random rand = new Random(3);
+        for (int ply = 0; ply < 20; ply++) {
+            List<Position> moves = game.ValidMoves();
+            Player player = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            assertTrue(game.locate_disc(moves.get(rand.nextInt(moves.size())), ply % 7 == 0 ? new BombDisc(player) : new SimpleDisc(player)));
+        }
+        List<Position> moves = game.ValidMoves();
+        Player player = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+        Disc disc = new SimpleDisc(player);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long before = 0;
+        for (int round = 0; round < 2; round++) {
+            before = threads.getThreadAllocatedBytes(Thread.currentThread().getId()); // The first round warms up
+            for (int i = 0; i < 1000; i++) {
+                Position move = moves.get(i % moves.size());
+                game.countFlips(move);
+                game.isValidMove(Position.of(i % 8, i / 8 % 8), disc);
+                game.locate_disc(move, disc);
+                game.undoLastMove();
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertTrue(allocated < 1024, "The flip scans should not allocate, " + allocated + " bytes were allocated.");
+    }
+}
@@ -4,17 +4,18 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameLogicTest {
-    GameLogic gameLogic;
+    AnalyzableLogic gameLogic;
     Player player1;
     Player player2;
 
         @BeforeEach
         void setUp() {
-            gameLogic = new GameLogic();
+            gameLogic = createGameLogic();
             // Use concrete subclasses of Player
             Player player1 = new HumanPlayer(true);  // Assuming HumanPlayer is a concrete subclass of Player
             Player player2 = new RandomAI(false);
@@ -22,6 +23,13 @@ class GameLogicTest {
             gameLogic.reset();
         }
 
+        /**
+         * Creates the implementation under test, overridden by the tests of other PlayableLogic implementations.
+         */
+        AnalyzableLogic createGameLogic() {
+            return new GameLogic();
+        }
+
         @Test
         void locate_disc() {
             // Initial setup: Place a disc in a valid position
@@ -111,25 +119,12 @@ class GameLogicTest {
         gameLogic.locate_disc(new Position(2, 2), new SimpleDisc(gameLogic.getFirstPlayer()));
         assertFalse(gameLogic.isGameFinished(), "The game is NOT finished.");
         gameLogic.reset();
-        Player randomPlayer1 = new RandomAI(true);
-        Disc randomDisc1 = new SimpleDisc(randomPlayer1);
-        Player randomPlayer2 = new RandomAI(false);
-        Disc randomDisc2 = new SimpleDisc(randomPlayer2);
         while (!gameLogic.ValidMoves().isEmpty())
         {
-
             Position move = gameLogic.ValidMoves().get(0);
-                if(gameLogic.isFirstPlayerTurn())
-                {
-                    gameLogic.locate_disc(move,randomDisc1);
-
-                }
-                else
-                {
-                    gameLogic.locate_disc(move, randomDisc2);
-                    //gameLogic.ValidMoves();
-
-                }
+            // The discs are owned by the players of the game, who take turns
+            Player mover = gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+            assertTrue(gameLogic.locate_disc(move, new SimpleDisc(mover)), "A valid move should be played.");
         }
         List<Position> remainingMoves = gameLogic.ValidMoves();
         assertTrue(remainingMoves.isEmpty(), "No valid moves should remain.");
@@ -184,4 +179,211 @@ class GameLogicTest {
         }
     }
 
+    @Test
+    void undoRestoresEveryPlyWithSpecialDiscs() {
+        Random rand = new Random(11);
+        List<String> states = new ArrayList<>();
+        List<Position> moves = gameLogic.ValidMoves();
+        while (!moves.isEmpty()) {
+            states.add(describe(gameLogic));
+            Player player = gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+            Disc disc = new SimpleDisc(player);
+            if (rand.nextInt(6) == 0 && player.getNumber_of_bombs() > 0) {
+                disc = new BombDisc(player);
+            } else if (rand.nextInt(6) == 0 && player.getNumber_of_unflippedable() > 0) {
+                disc = new UnflippableDisc(player);
+            }
+            assertTrue(gameLogic.locate_disc(moves.get(rand.nextInt(moves.size())), disc), "Valid moves should be accepted.");
+            moves = gameLogic.ValidMoves();
+        }
+        for (int ply = states.size() - 1; ply >= 0; ply--) {
+            gameLogic.undoLastMove();
+            assertEquals(states.get(ply), describe(gameLogic), "Undo should restore the position of ply " + ply);
+        }
+    }
+
+    @Test
+    void everyBombExplodesOncePerMove() {
+        long[] exploded = new long[1];
+        int[] explosions = new int[1];
+        gameLogic.setGameEventListener(new GameEventListener() {
+            @Override
+            public void bombExploded(boolean firstPlayer, int row, int col) {
+                long bit = 1L << (row * 8 + col);
+                assertEquals(0L, exploded[0] & bit, "A bomb should explode once per move.");
+                exploded[0] |= bit;
+                explosions[0]++;
+            }
+
+            @Override
+            public void moveCompleted(boolean firstPlayer) {
+                exploded[0] = 0;
+            }
+        });
+        for (int game = 0; game < 30; game++) {
+            gameLogic.reset();
+            Random rand = new Random(game);
+            List<Position> moves = gameLogic.ValidMoves();
+            while (!moves.isEmpty()) {
+                Player player = gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+                Disc disc = player.getNumber_of_bombs() > 0 && rand.nextInt(3) == 0 ? new BombDisc(player) : new SimpleDisc(player);
+                assertTrue(gameLogic.locate_disc(moves.get(rand.nextInt(moves.size())), disc));
+                moves = gameLogic.ValidMoves();
+            }
+        }
+        assertTrue(explosions[0] > 0, "The games should have exploded some bombs.");
+    }
+
+    @Test
+    void countersFollowEveryMoveAndUndo() {
+        Random rand = new Random(13);
+        int plies = 0;
+        List<Position> moves = gameLogic.ValidMoves();
+        while (!moves.isEmpty()) {
+            Player player = gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+            int type = rand.nextInt(3);
+            if (type == DiscType.BOMB && player.getNumber_of_bombs() == 0
+                    || type == DiscType.UNFLIPPABLE && player.getNumber_of_unflippedable() == 0) {
+                type = DiscType.SIMPLE;
+            }
+            assertTrue(gameLogic.locate_disc(moves.get(rand.nextInt(moves.size())), DiscType.newDisc(type, player)));
+            plies++;
+            assertCountersMatchBoard();
+            moves = gameLogic.ValidMoves();
+        }
+        assertTrue(gameLogic.isGameFinished());
+        for (; plies > 0; plies--) {
+            gameLogic.undoLastMove();
+            assertCountersMatchBoard();
+        }
+        assertEquals(60, gameLogic.getEmptyCellCount());
+    }
+
+    private void assertCountersMatchBoard() {
+        int empty = 0;
+        int[][] counts = new int[2][DiscType.COUNT];
+        for (int row = 0; row < gameLogic.getBoardSize(); row++) {
+            for (int col = 0; col < gameLogic.getBoardSize(); col++) {
+                Disc disc = gameLogic.getDiscAtPosition(new Position(row, col));
+                if (disc == null) {
+                    empty++;
+                } else {
+                    counts[disc.get_owner().isPlayerOne() ? 0 : 1][DiscType.of(disc)]++;
+                }
+            }
+        }
+        assertEquals(empty, gameLogic.getEmptyCellCount());
+        for (int type = 0; type < DiscType.COUNT; type++) {
+            assertEquals(counts[0][type], gameLogic.getDiscCount(true, type));
+            assertEquals(counts[1][type], gameLogic.getDiscCount(false, type));
+        }
+        assertEquals(counts[0][0] + counts[0][1] + counts[0][2], gameLogic.getDiscCount(true));
+        assertEquals(counts[1][0] + counts[1][1] + counts[1][2], gameLogic.getDiscCount(false));
+    }
+
+    @Test
+    void eventsReportEveryChange() {
+        int[] counts = new int[6]; // placed, flipped, completed, rejected, flipped back, undo completed
+        gameLogic.setGameEventListener(new GameEventListener() {
+            @Override
+            public void discPlaced(boolean firstPlayer, int type, int row, int col) {
+                counts[0]++;
+            }
+
+            @Override
+            public void discFlipped(boolean firstPlayer, int type, int row, int col) {
+                counts[1]++;
+            }
+
+            @Override
+            public void moveCompleted(boolean firstPlayer) {
+                counts[2]++;
+            }
+
+            @Override
+            public void moveRejected(boolean firstPlayer, int type, int row, int col, int reason) {
+                counts[3]++;
+            }
+
+            @Override
+            public void discFlippedBack(boolean firstPlayer, int type, int row, int col) {
+                counts[4]++;
+            }
+
+            @Override
+            public void undoCompleted() {
+                counts[5]++;
+            }
+        });
+
+        assertFalse(gameLogic.locate_disc(new Position(0, 0), new SimpleDisc(gameLogic.getFirstPlayer())));
+        assertEquals(1, counts[3], "An invalid move should be reported.");
+
+        Random rand = new Random(5);
+        int flips = 0;
+        int plies = 0;
+        List<Position> moves = gameLogic.ValidMoves();
+        while (!moves.isEmpty()) {
+            Player player = gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+            Disc disc = rand.nextInt(4) == 0 && player.getNumber_of_bombs() > 0 ? new BombDisc(player) : new SimpleDisc(player);
+            int opponentDiscs = countDiscs(gameLogic, !player.isPlayerOne());
+            assertTrue(gameLogic.locate_disc(moves.get(rand.nextInt(moves.size())), disc));
+            flips += opponentDiscs - countDiscs(gameLogic, !player.isPlayerOne());
+            plies++;
+            assertEquals(flips, counts[1], "Every flipped disc should be reported once.");
+            moves = gameLogic.ValidMoves();
+        }
+        assertEquals(plies, counts[0]);
+        assertEquals(plies, counts[2]);
+        for (int ply = 0; ply < plies; ply++) {
+            gameLogic.undoLastMove();
+        }
+        assertEquals(flips, counts[4], "Every disc given back should be reported once.");
+        assertEquals(plies, counts[5]);
+    }
+
+    @Test
+    void discViewsFollowTheBoard() {
+        // (3, 3) starts as a first player disc, the second player's move on (3, 2) flips it
+        Disc centre = gameLogic.getDiscAtPosition(new Position(3, 3));
+        assertTrue(gameLogic.locate_disc(new Position(4, 2), new SimpleDisc(gameLogic.getFirstPlayer())));
+        assertTrue(gameLogic.locate_disc(new Position(3, 2), new SimpleDisc(gameLogic.getSecondPlayer())));
+        assertSame(centre, gameLogic.getDiscAtPosition(new Position(3, 3)), "A cell should keep handing out the same disc.");
+        assertFalse(centre.get_owner().isPlayerOne(), "The disc should follow the flip.");
+        gameLogic.undoLastMove();
+        assertSame(centre, gameLogic.getDiscAtPosition(new Position(3, 3)));
+        assertTrue(centre.get_owner().isPlayerOne(), "The disc should follow the undo.");
+    }
+
+    static int countDiscs(PlayableLogic logic, boolean firstPlayer) {
+        int count = 0;
+        for (int row = 0; row < logic.getBoardSize(); row++) {
+            for (int col = 0; col < logic.getBoardSize(); col++) {
+                Disc disc = logic.getDiscAtPosition(new Position(row, col));
+                if (disc != null && disc.get_owner().isPlayerOne() == firstPlayer) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Describes the cells, the turn and the special disc inventories of a game as a string.
+     */
+    static String describe(PlayableLogic logic) {
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < logic.getBoardSize(); row++) {
+            for (int col = 0; col < logic.getBoardSize(); col++) {
+                Disc disc = logic.getDiscAtPosition(new Position(row, col));
+                builder.append(disc == null ? "." : disc.getType() + (disc.get_owner().isPlayerOne() ? "1" : "2"));
+            }
+            builder.append('/');
+        }
+        builder.append(logic.isFirstPlayerTurn() ? " first " : " second ");
+        builder.append(logic.getFirstPlayer().getNumber_of_bombs()).append(logic.getFirstPlayer().getNumber_of_unflippedable());
+        builder.append(logic.getSecondPlayer().getNumber_of_bombs()).append(logic.getSecondPlayer().getNumber_of_unflippedable());
+        return builder.toString();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a game-record file written by GameRecordWriter through a memory mapping.
+ * The reader is a cursor over the games: next() moves to the following game, whose header and moves are then
+ * read straight from the mapping, so iterating a file creates no object per game or per move.
+ * Files larger than the mapping window are mapped one window at a time, so a file may be larger than the heap.
+ * A reader may also cover only the games of a byte range of the file, see split.
+ */
+public class GameRecordReader implements AutoCloseable {
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long end; // The file offset where the games of this reader end
+    private final List<String> playerNames;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long nextGame; // The file offset of the game after the current one
+    private int gameStart = -1; // The offset of the current game in the window, -1 before the first game
+
+    public GameRecordReader(Path path) throws IOException {
+        this(path, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read the games which start in a byte range of the file.
+     * @param start , the offset of the first game, one of the offsets returned by split, or 0 for the first game
+     * @param end , the offset after the last game, the next offset returned by split
+     */
+    public GameRecordReader(Path path, long start, long end) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        this.end = Math.min(size, end);
+        map(0);
+        if (size < 6 || window.getInt(0) != GameRecordWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Not a game record file: " + path);
+        }
+        if (window.get(4) != GameRecordWriter.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported game record version " + window.get(4));
+        }
+        int playerCount = window.get(5) & 0xFF;
+        List<String> names = new ArrayList<>(playerCount);
+        int offset = 6;
+        for (int i = 0; i < playerCount; i++) {
+            int length = window.get(offset) & 0xFF;
+            byte[] bytes = new byte[length];
+            window.get(offset + 1, bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+            offset += 1 + length;
+        }
+        playerNames = Collections.unmodifiableList(names);
+        nextGame = Math.max(offset, start);
+    }
+
+    /**
+     * This function's purpose is to cut the games of the reader into ranges of about chunkBytes bytes
+     * which start on game boundaries, so that the ranges can be read by different readers.
+     * The games are skipped through their headers, the reader is left after its last game.
+     * @return the start offsets of the ranges followed by the end offset of the last one.
+     */
+    public long[] split(long chunkBytes) throws IOException {
+        long[] offsets = new long[16];
+        int count = 0;
+        offsets[count++] = nextGame;
+        long chunkStart = nextGame;
+        while (next()) {
+            if (nextGame - chunkStart >= chunkBytes) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = nextGame;
+                chunkStart = nextGame;
+            }
+        }
+        if (offsets[count - 1] != nextGame) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count + 1);
+            }
+            offsets[count++] = nextGame;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+    }
+
+    /**
+     * Move to the next game.
+     * @return false when there is no game left.
+     */
+    public boolean next() throws IOException {
+        if (nextGame + GameRecordWriter.GAME_HEADER_BYTES > end) {
+            gameStart = -1;
+            return false;
+        }
+        if (nextGame + GameRecordWriter.GAME_HEADER_BYTES > windowStart + window.limit()) {
+            map(nextGame);
+        }
+        int start = (int) (nextGame - windowStart);
+        int length = GameRecordWriter.GAME_HEADER_BYTES + (window.get(start) & 0xFF);
+        if (nextGame + length > size) {
+            throw new IOException("The last game of the file is truncated");
+        }
+        if (start + length > window.limit()) {
+            map(nextGame); // The game crosses the end of the window
+            start = 0;
+        }
+        gameStart = start;
+        nextGame += length;
+        return true;
+    }
+
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    public int getMoveCount() {
+        return window.get(current()) & 0xFF;
+    }
+
+    /**
+     * Get the index of the first player's name in getPlayerNames().
+     */
+    public int getFirstPlayer() {
+        return window.get(current() + 1) & 0xFF;
+    }
+
+    /**
+     * Get the index of the second player's name in getPlayerNames().
+     */
+    public int getSecondPlayer() {
+        return window.get(current() + 2) & 0xFF;
+    }
+
+    /**
+     * Get the first player's final discs minus the second player's.
+     */
+    public int getResult() {
+        return window.get(current() + 3);
+    }
+
+    /**
+     * Get a move of the current game, in the encoding of TypedMoves.encode.
+     * @param i , the index of the move, from 0
+     */
+    public int getMove(int i) {
+        return window.get(current() + GameRecordWriter.GAME_HEADER_BYTES + i) & 0xFF;
+    }
+
+    private int current() {
+        if (gameStart < 0) {
+            throw new IllegalStateException("next() did not move to a game");
+        }
+        return gameStart;
+    }
+
+    /**
+     * This function's purpose is to play the moves of the current game on a game, which must be
+     * at the starting position with its players set. Every disc is placed for the player to move,
+     * a BitboardGameLogic plays the moves without creating disc objects.
+     * @return false if a move was refused, the game then holds the moves before it.
+     */
+    public boolean replay(PlayableLogic game) {
+        int size = game.getBoardSize();
+        if (size != 8) {
+            throw new IllegalArgumentException("Game records hold 8x8 games");
+        }
+        for (int i = 0; i < getMoveCount(); i++) {
+            int move = getMove(i);
+            int square = TypedMoves.cell(move);
+            if (game instanceof BitboardGameLogic) {
+                if (!((BitboardGameLogic) game).play(square, TypedMoves.type(move))) {
+                    return false;
+                }
+                continue;
+            }
+            Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            Disc disc = DiscType.newDisc(TypedMoves.type(move), mover);
+            if (!game.locate_disc(Position.of(square / size, square % size), disc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+
+    @Test
+    void replayReproducesTheGames() throws Exception {
+        Path file = Files.createTempFile("games", ".rvgr");
+        Random rand = new Random(11);
+        GameLogic[] games = new GameLogic[5];
+        try {
+            try (GameRecordWriter writer = new GameRecordWriter(file, Arrays.asList("RandomAI", "GreedyAI"))) {
+                for (int i = 0; i < games.length; i++) {
+                    games[i] = new GameLogic();
+                    games[i].setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+                    GameRecorder recorder = new GameRecorder();
+                    games[i].setGameEventListener(recorder);
+                    playRandomly(games[i], rand, 20 + i * 10);
+                    writer.writeGame(i % 2, 1 - i % 2, games[i].getDiscCount(true) - games[i].getDiscCount(false), recorder);
+                }
+                assertEquals(games.length, writer.getGameCount());
+            }
+
+            try (GameRecordReader reader = new GameRecordReader(file)) {
+                assertEquals(List.of("RandomAI", "GreedyAI"), reader.getPlayerNames());
+                for (int i = 0; i < games.length; i++) {
+                    assertTrue(reader.next(), "Every written game should be read back.");
+                    assertEquals(i % 2, reader.getFirstPlayer());
+                    assertEquals(games[i].getDiscCount(true) - games[i].getDiscCount(false), reader.getResult());
+                    GameLogic replay = new GameLogic();
+                    replay.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+                    assertTrue(reader.replay(replay));
+                    assertEquals(GameLogicTest.describe(games[i]), GameLogicTest.describe(replay));
+                    assertEquals(games[i].getZobristHash(), replay.getZobristHash());
+                }
+                assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void splitCoversEveryGameOnce() throws Exception {
+        Path file = Files.createTempFile("games", ".rvgr");
+        Random rand = new Random(12);
+        try {
+            try (GameRecordWriter writer = new GameRecordWriter(file, List.of("RandomAI"))) {
+                for (int i = 0; i < 200; i++) {
+                    GameLogic game = new GameLogic();
+                    game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+                    GameRecorder recorder = new GameRecorder();
+                    game.setGameEventListener(recorder);
+                    playRandomly(game, rand, 60);
+                    writer.writeGame(0, 0, game.getDiscCount(true) - game.getDiscCount(false), recorder);
+                }
+            }
+            long[] offsets;
+            try (GameRecordReader reader = new GameRecordReader(file)) {
+                offsets = reader.split(1000);
+            }
+            assertTrue(offsets.length > 2, "The archive should be cut into several chunks.");
+            assertEquals(Files.size(file), offsets[offsets.length - 1]);
+            int games = 0;
+            for (int i = 0; i + 1 < offsets.length; i++) {
+                try (GameRecordReader reader = new GameRecordReader(file, offsets[i], offsets[i + 1])) {
+                    while (reader.next()) {
+                        games++;
+                    }
+                }
+            }
+            assertEquals(200, games);
+            GameArchiveStats.Stats stats = GameArchiveStats.analyze(file, 3, 1000);
+            assertEquals(200, stats.games);
+            assertEquals(0, stats.mismatches, "Every game should replay to its recorded result.");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void recordsOnlyTheBoardSizeTheReaderReplays() {
+        assertThrows(IllegalArgumentException.class, () -> new GameRecorder(6));
+        assertThrows(IllegalArgumentException.class, () -> new GameRecorder(10));
+    }
+
+    /**
+     * Play random moves, special discs included, and undo one now and then so that the recorder drops it.
+     */
+    private static void playRandomly(GameLogic game, Random rand, int plies) {
+        for (int ply = 0; ply < plies && !game.ValidMoves().isEmpty(); ply++) {
+            List<Position> moves = game.ValidMoves();
+            Position move = moves.get(rand.nextInt(moves.size()));
+            Player mover = game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+            Disc disc = DiscType.newDisc(rand.nextInt(4) == 0 ? rand.nextInt(DiscType.COUNT) : DiscType.SIMPLE, mover);
+            if (!game.locate_disc(move, disc)) {
+                game.locate_disc(move, new SimpleDisc(mover));
+            }
+            if (rand.nextInt(8) == 0) {
+                game.undoLastMove();
+            }
+        }
+    }
+}
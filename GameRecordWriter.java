@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes games of 8x8 Reversi to a binary game-record file through a FileChannel.
+ * <p>
+ * The file starts with a header: the magic number "RVGR" (4 bytes), the format version (1 byte),
+ * the number of player names (1 byte) and every name as its UTF-8 length (1 byte) followed by its bytes.
+ * Every game follows as a 4 byte game header, the number of moves (unsigned), the index of the first
+ * player's name, the index of the second player's name and the result (the first player's final discs
+ * minus the second player's, signed), then one byte per move: the move as TypedMoves.encode packs it, the cell
+ * (row * 8 + col) in the high 6 bits and the DiscType code in the low 2 bits. Version 1 files held the cell in the
+ * low bits, they are not read any more.
+ * The games are replayed from the starting position, see GameRecordReader.
+ * <p>
+ * Games are buffered and written in large blocks. writeGame may be called from several threads.
+ */
+public class GameRecordWriter implements AutoCloseable {
+    static final int MAGIC = 0x52564752; // "RVGR"
+    static final int VERSION = 2;
+    static final int GAME_HEADER_BYTES = 4;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final int playerCount;
+    private long gameCount;
+
+    /**
+     * Create the file, it is overwritten if it exists.
+     * @param path , the file to write
+     * @param playerNames , the names the games refer to by index, at most 256 names of at most 255 bytes
+     */
+    public GameRecordWriter(Path path, List<String> playerNames) throws IOException {
+        if (playerNames.size() > 256) {
+            throw new IllegalArgumentException("A game record file holds at most 256 player names");
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        playerCount = playerNames.size();
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) playerCount);
+        for (String name : playerNames) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 255) {
+                throw new IllegalArgumentException("The player name is too long: " + name);
+            }
+            if (buffer.remaining() < 1 + bytes.length) {
+                flush();
+            }
+            buffer.put((byte) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Write a game.
+     * @param firstPlayer , the index of the first player's name
+     * @param secondPlayer , the index of the second player's name
+     * @param result , the first player's final discs minus the second player's
+     * @param moves , the moves in the encoding of TypedMoves.encode, one byte each
+     * @param moveCount , the number of moves to write from the start of the array
+     */
+    public synchronized void writeGame(int firstPlayer, int secondPlayer, int result, byte[] moves, int moveCount)
+            throws IOException {
+        if (firstPlayer < 0 || firstPlayer >= playerCount || secondPlayer < 0 || secondPlayer >= playerCount) {
+            throw new IllegalArgumentException("Unknown player index");
+        }
+        if (moveCount > 255) {
+            throw new IllegalArgumentException("A game holds at most 255 moves");
+        }
+        if (buffer.remaining() < GAME_HEADER_BYTES + moveCount) {
+            flush();
+        }
+        buffer.put((byte) moveCount);
+        buffer.put((byte) firstPlayer);
+        buffer.put((byte) secondPlayer);
+        buffer.put((byte) result);
+        buffer.put(moves, 0, moveCount);
+        gameCount++;
+    }
+
+    /**
+     * Write the game held by a recorder.
+     */
+    public void writeGame(int firstPlayer, int secondPlayer, int result, GameRecorder recorder) throws IOException {
+        writeGame(firstPlayer, secondPlayer, result, recorder.getMoves(), recorder.getMoveCount());
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * A game event listener which keeps the moves of the game being played as one byte each,
+ * in the encoding of TypedMoves.encode (the cell in the high 6 bits, the DiscType code in the low 2 bits).
+ * Undone moves are dropped, so the recorder always holds the moves leading to the current position.
+ * The moves are meant for GameRecordWriter.
+ */
+public class GameRecorder implements GameEventListener {
+    private final int boardSize;
+    private final byte[] moves;
+    private int moveCount;
+
+    public GameRecorder() {
+        this(8);
+    }
+
+    /**
+     * @param boardSize , the size of the board, 8: the records have no board size and are replayed on 8x8 boards
+     */
+    public GameRecorder(int boardSize) {
+        if (boardSize != 8) {
+            throw new IllegalArgumentException("Game records hold 8x8 games");
+        }
+        this.boardSize = boardSize;
+        this.moves = new byte[boardSize * boardSize];
+    }
+
+    @Override
+    public void gameStarted(int boardSize) {
+        moveCount = 0;
+    }
+
+    @Override
+    public void discPlaced(boolean firstPlayer, int type, int row, int col) {
+        moves[moveCount++] = (byte) TypedMoves.encode(row * boardSize + col, type);
+    }
+
+    @Override
+    public void moveUndone(boolean firstPlayer, int type, int row, int col) {
+        moveCount--;
+    }
+
+    /**
+     * Forget the recorded moves, to record a new game.
+     */
+    public void clear() {
+        moveCount = 0;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Get the recorded moves, the array is reused: only the first getMoveCount() bytes are moves.
+     */
+    public byte[] getMoves() {
+        return moves;
+    }
+}
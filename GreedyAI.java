@@ -1,9 +1,6 @@
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 public class GreedyAI extends AIPlayer
 {
+    private MoveAnalysis analysis; // Filled again on every move
 
 
     public GreedyAI(boolean isPlayerOne) {
@@ -13,21 +10,42 @@ public class GreedyAI extends AIPlayer
 
     public Move makeMove(PlayableLogic gameStatus)
     {
+        long start = System.nanoTime();
         if (gameStatus.isGameFinished())
         {
-            return null; // Game is finished; no move to make
+            return EngineMetrics.decided(this, null, start, 0, 0); // Game is finished; no move to make
+        }
+        int size = gameStatus.getBoardSize();
+        if (analysis == null || analysis.getBoardSize() != size)
+        {
+            analysis = new MoveAnalysis(size);
         }
-        List<Position> moves = gameStatus.ValidMoves();
-        if (moves.isEmpty())
+        return EngineMetrics.decided(this, greedyMove(gameStatus, analysis, this), start, 0, 0);
+    }
+
+    /**
+     * This function's purpose is to find the greedy move of a player: the move flipping the most discs,
+     * the most eastern (then southern) one on ties, with a simple disc.
+     * Any board size is supported, so the AIs searching 8x8 bitboards play the other boards with it.
+     * @param analysis , the analysis to fill with the moves of the game, made for the size of its board
+     * @param player , the owner of the disc, the player to move
+     * @return the move, or null when the player has no valid move.
+     */
+    static Move greedyMove(PlayableLogic gameStatus, MoveAnalysis analysis, Player player)
+    {
+        int size = gameStatus.getBoardSize();
+        AnalyzableLogic.of(gameStatus).analyzeMoves(analysis); // The flips of every move in one call
+        if (analysis.getMoveCount() == 0)
         {
-            return null; // No valid moves available, return null
+            return null; // No valid moves available
         }
-        Position bestMove = null;
-        int maxFlips = 0;
+        int bestMove = -1;
+        int maxFlips = -1; // A move may flip nothing when its line is made of unflippable discs
 
         // Loop to find the position with the most flips
-        for (Position move : moves) {
-            int flips = gameStatus.countFlips(move);
+        for (int i = 0; i < analysis.getMoveCount(); i++) {
+            int move = analysis.getMove(i);
+            int flips = analysis.getFlips(move);
             if (flips > maxFlips)
             {
                 maxFlips = flips;
@@ -36,14 +54,14 @@ public class GreedyAI extends AIPlayer
             else if (flips == maxFlips)
             {
                 // If flips are the same, prioritize by column (most eastern)
-                if (move.getCol() > bestMove.getCol() ||
-                        (move.getCol() == bestMove.getCol() && move.getRow() > bestMove.getRow()))
+                if (move % size > bestMove % size ||
+                        (move % size == bestMove % size && move / size > bestMove / size))
                 {
                     bestMove = move;
                 }
             }
         }
-        Disc aiDisc = new SimpleDisc(this);
-        return new Move(bestMove, aiDisc);
+        Disc aiDisc = new SimpleDisc(player);
+        return new Move(new Position(bestMove / size, bestMove % size), aiDisc);
     }
 }
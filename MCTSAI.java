@@ -0,0 +1,332 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An AI player which runs Monte Carlo Tree Search with the UCT selection rule.
+ * Positions are scored by playing them out with random moves to the end of the game, which needs no
+ * evaluation function, so bomb chain reactions are handled by the rules themselves.
+ * Several workers grow one tree at the same time, each on its own copy of the position; the visit and
+ * win counters of the nodes are updated with atomic operations and no lock is taken.
+ * A visit is counted before the playout ends, so that the other workers see the node as less attractive
+ * until its result arrives. When the opponent's reply is already in the tree, the tree is kept for the next move.
+ * The time budget and the number of workers default to the "reversi.ai.millis" and "reversi.ai.threads"
+ * system properties (500 ms and the number of cores when they are not set).
+ * The tree holds 8x8 bitboards, the other board sizes are played like GreedyAI.
+ */
+public class MCTSAI extends AIPlayer {
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = Long.getLong("reversi.ai.millis", 500);
+    private static final int DEFAULT_THREADS = Integer.getInteger("reversi.ai.threads", Runtime.getRuntime().availableProcessors());
+    private static final ForkJoinPool PLAYOUT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private static final double EXPLORATION = 1.0;
+    private static final int EXPANSION_VISITS = 2; // A leaf is expanded from its second visit on
+    private static final int SPECIAL_DISC_ODDS = 16; // A playout places a special disc once in this many moves
+
+    private long timeBudgetMillis;
+    private int threads = DEFAULT_THREADS;
+
+    // Tree kept from the last call: the node of the move we played and the position it led to
+    private Node playedNode;
+    private BitboardGameLogic playedPosition;
+
+    private long lastPlayouts;
+    private long lastElapsedNanos;
+    private boolean lastTreeReused;
+    private MoveAnalysis fallback; // The moves of the boards other than 8x8, played greedily
+
+    public MCTSAI(boolean isPlayerOne) {
+        this(isPlayerOne, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public MCTSAI(boolean isPlayerOne, long timeBudgetMillis) {
+        super(isPlayerOne);
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * A node of the search tree. wins counts two points per win and one per draw
+     * for the player who made the move leading to the node.
+     */
+    private static final class Node {
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        private static final AtomicLongFieldUpdater<Node> WINS =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "wins");
+        private static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+
+        final int move;
+        final int mover; // 0 when the first player made the move
+        volatile int visits;
+        volatile long wins;
+        volatile Node[] children;
+
+        Node(int move, int mover) {
+            this.move = move;
+            this.mover = mover;
+        }
+    }
+
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        long start = System.nanoTime();
+        if (gameStatus.getBoardSize() != 8) {
+            return EngineMetrics.decided(this, playGreedily(gameStatus), start, 0, 0);
+        }
+        BitboardGameLogic board = BitboardGameLogic.copyOf(gameStatus);
+        long legal = board.validMovesMask();
+        if (legal == 0) {
+            return EngineMetrics.decided(this, null, start, 0, 0); // No valid moves available, return null
+        }
+
+        Node root = findOpponentReply(board);
+        lastTreeReused = root != null;
+        if (root == null) {
+            root = new Node(-1, board.isFirstPlayerTurn() ? 1 : 0);
+        }
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+        LongAdder playouts = new LongAdder();
+
+        Node searchRoot = root;
+        List<Future<?>> workers = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            BitboardGameLogic copy = BitboardGameLogic.copyOf(board);
+            workers.add(PLAYOUT_POOL.submit(() -> grow(searchRoot, copy, deadline, playouts)));
+        }
+        grow(root, BitboardGameLogic.copyOf(board), deadline, playouts);
+        for (Future<?> worker : workers) {
+            join(worker);
+        }
+
+        Node best = mostVisitedChild(root);
+        int bestMove = best != null ? best.move
+                : TypedMoves.encode(Long.numberOfTrailingZeros(legal), DiscType.SIMPLE);
+        playedNode = best;
+        playedPosition = board;
+        playedPosition.play(TypedMoves.cell(bestMove), TypedMoves.type(bestMove));
+
+        lastPlayouts = playouts.sum();
+        lastElapsedNanos = System.nanoTime() - start;
+
+        int square = TypedMoves.cell(bestMove);
+        Position position = new Position(square / gameStatus.getBoardSize(), square % gameStatus.getBoardSize());
+        Move move = new Move(position, DiscType.newDisc(TypedMoves.type(bestMove), this));
+        return EngineMetrics.decided(this, move, start, lastPlayouts, 0);
+    }
+
+    /**
+     * This function's purpose is to play the boards other than 8x8, which the bitboard search cannot hold,
+     * with the move of GreedyAI.
+     */
+    private Move playGreedily(PlayableLogic gameStatus) {
+        int size = gameStatus.getBoardSize();
+        if (fallback == null || fallback.getBoardSize() != size) {
+            fallback = new MoveAnalysis(size);
+        }
+        return GreedyAI.greedyMove(gameStatus, fallback, this);
+    }
+
+    /**
+     * This function's purpose is to find the node of the current position under the move we played last time.
+     * @param board , the current position
+     * @return the node to reuse as the root, or null if the opponent's reply was never explored.
+     */
+    private Node findOpponentReply(BitboardGameLogic board) {
+        Node[] replies = playedNode == null ? null : playedNode.children;
+        if (replies == null) {
+            return null;
+        }
+        long target = board.getZobristHash();
+        for (Node reply : replies) {
+            playedPosition.play(TypedMoves.cell(reply.move), TypedMoves.type(reply.move));
+            boolean match = playedPosition.getZobristHash() == target;
+            playedPosition.undoLastMove();
+            if (match) {
+                return reply;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This function's purpose is to run selection, expansion, playout and backpropagation until the deadline.
+     * @param root , the root of the tree, shared by all workers
+     * @param board , the worker's private copy of the root position
+     * @param deadline , the System.nanoTime() value at which the worker stops
+     * @param playouts , the playout counter shared by all workers
+     */
+    private static void grow(Node root, BitboardGameLogic board, long deadline, LongAdder playouts) {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        Node[] path = new Node[65];
+        TypedMoves moves = new TypedMoves(8); // Scratch space of expand
+        while (System.nanoTime() < deadline) {
+            int length = 0;
+            int plies = 0;
+            Node node = root;
+            Node.VISITS.incrementAndGet(node);
+            path[length++] = node;
+
+            // Selection and expansion
+            while (true) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node != root && node.visits < EXPANSION_VISITS) {
+                        break;
+                    }
+                    children = expand(node, board, moves);
+                }
+                if (children.length == 0) {
+                    break; // The game is over in this node
+                }
+                node = select(node, children);
+                Node.VISITS.incrementAndGet(node);
+                path[length++] = node;
+                board.play(TypedMoves.cell(node.move), TypedMoves.type(node.move));
+                plies++;
+            }
+
+            // Random playout
+            long legal;
+            while ((legal = board.validMovesMask()) != 0 && board.play(randomCell(legal, rand), randomType(board, rand))) {
+                plies++;
+            }
+            int diff = Long.bitCount(board.getDiscMask(true)) - Long.bitCount(board.getDiscMask(false));
+            for (int i = 0; i < plies; i++) {
+                board.undoLastMove();
+            }
+
+            // Backpropagation
+            for (int i = 0; i < length; i++) {
+                Node visited = path[i];
+                int reward = diff == 0 ? 1 : (diff > 0) == (visited.mover == 0) ? 2 : 0;
+                if (reward != 0) {
+                    Node.WINS.addAndGet(visited, reward);
+                }
+            }
+            playouts.increment();
+        }
+    }
+
+    private static Node[] expand(Node node, BitboardGameLogic board, TypedMoves moves) {
+        int mover = board.isFirstPlayerTurn() ? 0 : 1;
+        board.generateTypedMoves(moves);
+        Node[] children = new Node[moves.getMoveCount()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = new Node(moves.getMove(i), mover);
+        }
+        // Another worker may have expanded the node meanwhile, in which case its children are kept
+        Node.CHILDREN.compareAndSet(node, null, children);
+        return node.children;
+    }
+
+    private static Node select(Node parent, Node[] children) {
+        double logVisits = Math.log(Math.max(1, parent.visits));
+        Node best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            int visits = child.visits;
+            if (visits == 0) {
+                return child;
+            }
+            double score = child.wins / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private static Node mostVisitedChild(Node root) {
+        Node[] children = root.children;
+        Node best = null;
+        if (children != null) {
+            for (Node child : children) {
+                if (best == null || child.visits > best.visits) {
+                    best = child;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int randomCell(long cells, ThreadLocalRandom rand) {
+        for (int skip = rand.nextInt(Long.bitCount(cells)); skip > 0; skip--) {
+            cells &= cells - 1;
+        }
+        return Long.numberOfTrailingZeros(cells);
+    }
+
+    private static int randomType(BitboardGameLogic board, ThreadLocalRandom rand) {
+        int roll = rand.nextInt(SPECIAL_DISC_ODDS);
+        boolean first = board.isFirstPlayerTurn();
+        if (roll == 0 && board.getBombsLeft(first) > 0) {
+            return DiscType.BOMB;
+        }
+        if (roll == 1 && board.getUnflippablesLeft(first) > 0) {
+            return DiscType.UNFLIPPABLE;
+        }
+        return DiscType.SIMPLE;
+    }
+
+    private static void join(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a playout worker", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A playout worker failed", e.getCause());
+        }
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of workers running playouts, the calling thread included.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one playout worker is needed");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Get the number of playouts run by the last call to makeMove, over all the workers.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Get the playout speed of the last call to makeMove, in playouts per second.
+     */
+    public long getPlayoutsPerSecond() {
+        return lastElapsedNanos == 0 ? 0 : lastPlayouts * 1_000_000_000L / lastElapsedNanos;
+    }
+
+    /**
+     * Check whether the last call to makeMove started from the tree of the previous call.
+     */
+    public boolean isLastTreeReused() {
+        return lastTreeReused;
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MCTSAITest {
+
+    @Test
+    void alwaysPlaysALegalTypedMove() {
+        for (int threads = 1; threads <= 2; threads++) {
+            MCTSAI first = new MCTSAI(true, 5);
+            MCTSAI second = new MCTSAI(false, 5);
+            first.setThreads(threads);
+            second.setThreads(threads);
+            GameLogic game = new GameLogic();
+            game.setPlayers(first, second);
+            int specialDiscs = 0;
+            while (!game.ValidMoves().isEmpty()) {
+                MCTSAI mover = game.isFirstPlayerTurn() ? first : second;
+                int bombs = mover.getNumber_of_bombs();
+                int unflippables = mover.getNumber_of_unflippedable();
+                Move move = mover.makeMove(game);
+                assertNotNull(move, "The AI should move while it has legal moves.");
+                assertSame(mover, move.disc().get_owner());
+                int type = DiscType.of(move.disc());
+                assertTrue(type != DiscType.BOMB || bombs > 0, "A bomb should only be played while some are left.");
+                assertTrue(type != DiscType.UNFLIPPABLE || unflippables > 0, "An unflippable disc should only be played while some are left.");
+                assertTrue(game.locate_disc(move.position(), move.disc()), "The move " + move.position() + " should be legal.");
+                if (type != DiscType.SIMPLE) {
+                    specialDiscs++;
+                }
+            }
+            assertNull((game.isFirstPlayerTurn() ? first : second).makeMove(game), "A finished game has no move.");
+            assertTrue(specialDiscs <= 2 * (Player.initial_number_of_bombs + Player.initial_number_of_unflippedable), "The special discs should be limited.");
+        }
+    }
+
+    @Test
+    void playsOtherBoardSizesLikeGreedyAI() {
+        for (int size : new int[]{6, 10}) {
+            MCTSAI first = new MCTSAI(true, 5);
+            MCTSAI second = new MCTSAI(false, 5);
+            GreedyAI greedy = new GreedyAI(true);
+            GameLogic game = new GameLogic(size);
+            game.setPlayers(first, second);
+            while (!game.ValidMoves().isEmpty()) {
+                MCTSAI mover = game.isFirstPlayerTurn() ? first : second;
+                Move move = mover.makeMove(game);
+                Move expected = greedy.makeMove(game);
+                assertEquals(expected.position(), move.position(), "The AI should play the greedy move on a " + size + "x" + size + " board.");
+                assertSame(mover, move.disc().get_owner());
+                assertTrue(game.locate_disc(move.position(), move.disc()));
+            }
+            assertNull((game.isFirstPlayerTurn() ? first : second).makeMove(game), "A finished game has no move.");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * The result of AnalyzableLogic.analyzeMoves: for every legal move of the player to move, the number of discs it
+ * flips, how many of them are flipped by bomb explosions, and the disc differential it leaves for the mover.
+ * The values are kept in primitive arrays indexed by cell (row * board size + col), so one instance can be
+ * filled again on every ply without creating objects.
+ */
+public class MoveAnalysis {
+    private final int boardSize;
+    private final int[] moves; // The legal cells, in row major order
+    private int moveCount;
+    private final boolean[] legal;
+    private final int[] flips;
+    private final int[] bombFlips;
+    private final int[] discDifferentials;
+
+    public MoveAnalysis(int boardSize) {
+        this.boardSize = boardSize;
+        int cells = boardSize * boardSize;
+        moves = new int[cells];
+        legal = new boolean[cells];
+        flips = new int[cells];
+        bombFlips = new int[cells];
+        discDifferentials = new int[cells];
+    }
+
+    /**
+     * Forget the moves of the last analysis.
+     */
+    void clear() {
+        for (int i = 0; i < moveCount; i++) {
+            legal[moves[i]] = false;
+        }
+        moveCount = 0;
+    }
+
+    /**
+     * Record a legal move, the moves must be added in row major order.
+     * @param cell , the cell index of the move
+     * @param flipped , the discs the move flips, bomb explosions included
+     * @param bombFlipped , the discs among them which are flipped by bomb explosions
+     * @param discDifferential , the discs of the mover minus the discs of the opponent after the move
+     */
+    void add(int cell, int flipped, int bombFlipped, int discDifferential) {
+        moves[moveCount++] = cell;
+        legal[cell] = true;
+        flips[cell] = flipped;
+        bombFlips[cell] = bombFlipped;
+        discDifferentials[cell] = discDifferential;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Get the number of legal moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Get the cell index (row * board size + col) of the i-th legal move.
+     */
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    public boolean isLegal(int cell) {
+        return legal[cell];
+    }
+
+    /**
+     * Get the number of discs flipped by the move on the cell, bomb explosions included.
+     */
+    public int getFlips(int cell) {
+        return legal[cell] ? flips[cell] : 0;
+    }
+
+    /**
+     * Get the number of discs flipped by bomb explosions when moving on the cell.
+     */
+    public int getBombFlips(int cell) {
+        return legal[cell] ? bombFlips[cell] : 0;
+    }
+
+    /**
+     * Get the discs of the mover minus the discs of the opponent after the move on the cell, 0 when it is not legal.
+     */
+    public int getDiscDifferential(int cell) {
+        return legal[cell] ? discDifferentials[cell] : 0;
+    }
+}
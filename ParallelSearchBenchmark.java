@@ -0,0 +1,64 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how the parallel AlphaBetaAI search scales with the number of threads.
+ * A fixed set of positions is searched to a fixed depth with 1, 2, 4, ... threads (up to the number of cores),
+ * and the time to depth, the speedup over one thread and the nodes per second are printed for each thread count.
+ * Usage: java ParallelSearchBenchmark [depth] [positions]
+ */
+public class ParallelSearchBenchmark {
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int positionCount = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int cores = Runtime.getRuntime().availableProcessors();
+        BitboardGameLogic[] positions = createPositions(positionCount);
+
+        System.out.printf("Searching %d positions to depth %d on %d cores%n", positionCount, depth, cores);
+        System.out.println("threads, millis, speedup, nodes/s");
+        double singleThreadMillis = 0;
+        for (int threads = 1; threads <= cores; threads = threads == cores ? cores + 1 : Math.min(threads * 2, cores)) {
+            long nanos = 0;
+            long nodes = 0;
+            for (BitboardGameLogic position : positions) {
+                TranspositionTable.shared().clear();
+                AlphaBetaAI ai = new AlphaBetaAI(position.isFirstPlayerTurn(), 3_600_000);
+                ai.setThreads(threads);
+                ai.setMaxDepth(depth);
+                ai.makeMove(position);
+                nanos += ai.getLastElapsedNanos();
+                nodes += ai.getLastNodes();
+            }
+            double millis = nanos / 1e6;
+            if (threads == 1) {
+                singleThreadMillis = millis;
+            }
+            System.out.printf("%d, %.0f, %.2f, %d%n", threads, millis, singleThreadMillis / millis, (long) (nodes / (nanos / 1e9)));
+        }
+    }
+
+    /**
+     * This function's purpose is to create reproducible positions from the opening to the late midgame.
+     * @param count , the number of positions
+     */
+    static BitboardGameLogic[] createPositions(int count) {
+        Random rand = new Random(20250101L);
+        BitboardGameLogic[] positions = new BitboardGameLogic[count];
+        for (int i = 0; i < count; i++) {
+            BitboardGameLogic game = new BitboardGameLogic();
+            game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+            int plies = 8 + (i * 30) / Math.max(1, count);
+            for (int ply = 0; ply < plies; ply++) {
+                List<Position> moves = game.ValidMoves();
+                if (moves.isEmpty()) {
+                    break;
+                }
+                Position move = moves.get(rand.nextInt(moves.size()));
+                game.play(move.row() * 8 + move.col(), DiscType.SIMPLE);
+            }
+            positions[i] = BitboardGameLogic.copyOf(game);
+        }
+        return positions;
+    }
+}
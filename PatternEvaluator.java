@@ -0,0 +1,290 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A position evaluator made of pattern tables, with one set of weights per game stage.
+ * Every pattern is a fixed line of cells (the edges, the rows next to them, the 3x3 corners and the two long
+ * diagonals) read as a base-3 number, its first cell being the lowest digit: 0 for an empty cell, 1 for a disc
+ * of the player to move and 2 for a disc of the opponent. Symmetric patterns share one table, so an evaluation
+ * is one lookup per pattern, a bias and a weight for the unflippable discs of each player.
+ * The pattern indexes are computed from whole rows, columns and diagonals of the bitboards at once:
+ * a line is gathered into a byte and the byte is turned into base-3 digits by a table.
+ * The weights are short values in hundredths of a disc and estimate the final disc differential of the player
+ * to move. They are fitted offline by PatternTrainer and saved in a binary file (see save and load).
+ */
+public class PatternEvaluator {
+    public static final int STAGES = 6;
+    public static final int SCALE = 100; // Weight units per disc
+    private static final int MAGIC = 0x52505457; // "RPTW"
+    private static final String WEIGHTS_FILE = System.getProperty("reversi.eval.weights", "pattern-weights.bin");
+
+    // The patterns, every cell list starts from a corner so that symmetric lines read the same way
+    static final int[][] PATTERNS;
+    // The table of every pattern, and the number of entries of every table
+    static final int[] PATTERN_TABLES;
+    static final int[] TABLE_SIZES = {6561, 6561, 19683, 6561}; // Edge, row next to the edge, 3x3 corner, diagonal
+    private static final int[] TABLE_OFFSETS = new int[TABLE_SIZES.length];
+    private static final int EDGE = 0;
+    private static final int NEXT_ROW = TABLE_SIZES[0];
+    private static final int CORNER = NEXT_ROW + TABLE_SIZES[1];
+    private static final int DIAGONAL = CORNER + TABLE_SIZES[2];
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long COLUMN_MAGIC = 0x0102040810204080L; // Gathers the cells of column A into a byte
+    private static final long MAIN_DIAGONAL = 0x8040201008040201L;
+    private static final long ANTI_DIAGONAL = 0x0102040810204080L;
+    // The base-3 value of a byte read from bit 0 up, and from bit 7 down
+    private static final int[] BASE3 = new int[256];
+    private static final int[] BASE3_REVERSED = new int[256];
+    // The weights of a stage: the tables one after the other, then the bias and the unflippable disc weight
+    static final int BIAS;
+    static final int UNFLIPPABLE;
+    static final int WEIGHTS_PER_STAGE;
+
+    static {
+        int[][] patterns = new int[14][];
+        int[] tables = new int[14];
+        int count = 0;
+        for (int corner = 0; corner < 4; corner++) {
+            int row = corner < 2 ? 0 : 7;
+            int col = corner % 2 == 0 ? 0 : 7;
+            int dRow = row == 0 ? 1 : -1;
+            int dCol = col == 0 ? 1 : -1;
+            // The edge leaving the corner along its row for the top and bottom corners of the left side,
+            // along its column for the others, so that each of the four edges is taken once
+            boolean alongRow = corner == 0 || corner == 3;
+            int[] edge = new int[8];
+            int[] nextRow = new int[8];
+            for (int i = 0; i < 8; i++) {
+                edge[i] = alongRow ? row * 8 + col + i * dCol : (row + i * dRow) * 8 + col;
+                nextRow[i] = alongRow ? (row + dRow) * 8 + col + i * dCol : (row + i * dRow) * 8 + col + dCol;
+            }
+            int[] block = new int[9];
+            for (int i = 0; i < 9; i++) {
+                block[i] = (row + i / 3 * dRow) * 8 + col + i % 3 * dCol;
+            }
+            tables[count] = 0;
+            patterns[count++] = edge;
+            tables[count] = 1;
+            patterns[count++] = nextRow;
+            tables[count] = 2;
+            patterns[count++] = block;
+        }
+        int[] diagonal = new int[8];
+        int[] antiDiagonal = new int[8];
+        for (int i = 0; i < 8; i++) {
+            diagonal[i] = i * 9;
+            antiDiagonal[i] = (i + 1) * 7;
+        }
+        tables[count] = 3;
+        patterns[count++] = diagonal;
+        tables[count] = 3;
+        patterns[count++] = antiDiagonal;
+        PATTERNS = patterns;
+        PATTERN_TABLES = tables;
+
+        int offset = 0;
+        for (int table = 0; table < TABLE_SIZES.length; table++) {
+            TABLE_OFFSETS[table] = offset;
+            offset += TABLE_SIZES[table];
+        }
+        BIAS = offset;
+        UNFLIPPABLE = offset + 1;
+        WEIGHTS_PER_STAGE = offset + 2;
+
+        for (int bits = 0; bits < 256; bits++) {
+            for (int bit = 0, power = 1; bit < 8; bit++, power *= 3) {
+                if ((bits & 1 << bit) != 0) {
+                    BASE3[bits] += power;
+                }
+                if ((bits & 1 << (7 - bit)) != 0) {
+                    BASE3_REVERSED[bits] += power;
+                }
+            }
+        }
+    }
+
+    private static volatile PatternEvaluator shared;
+    private static volatile boolean sharedLoaded;
+
+    private final short[][] weights;
+
+    /**
+     * @param weights , one array of WEIGHTS_PER_STAGE weights per stage
+     */
+    public PatternEvaluator(short[][] weights) {
+        if (weights.length != STAGES) {
+            throw new IllegalArgumentException("Expected weights for " + STAGES + " stages");
+        }
+        for (short[] stage : weights) {
+            if (stage.length != WEIGHTS_PER_STAGE) {
+                throw new IllegalArgumentException("Expected " + WEIGHTS_PER_STAGE + " weights per stage");
+            }
+        }
+        this.weights = weights;
+    }
+
+    /**
+     * Get the evaluator of the weights file named by the "reversi.eval.weights" system property
+     * (pattern-weights.bin when it is not set), loaded on the first call.
+     * @return the evaluator, or null when there is no weights file.
+     */
+    public static PatternEvaluator shared() {
+        if (!sharedLoaded) {
+            synchronized (PatternEvaluator.class) {
+                if (!sharedLoaded) {
+                    Path path = Paths.get(WEIGHTS_FILE);
+                    if (Files.isRegularFile(path)) {
+                        try {
+                            shared = load(path);
+                        } catch (IOException e) {
+                            System.err.println("Cannot read the evaluation weights " + path + ": " + e.getMessage());
+                        }
+                    }
+                    sharedLoaded = true;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * This function's purpose is to return the stage of a position from its number of discs.
+     */
+    public static int stageOf(int discs) {
+        return Math.min(STAGES - 1, Math.max(0, discs - 4) * STAGES / 60);
+    }
+
+    /**
+     * This function's purpose is to return the weight index of a pattern in a position, one cell at a time.
+     * evaluate computes the same indexes from whole lines.
+     * @param pattern , the index of the pattern in PATTERNS
+     * @param own , the discs of the player to move
+     * @param opp , the discs of the opponent
+     */
+    static int weightIndex(int pattern, long own, long opp) {
+        int index = 0;
+        int power = 1;
+        for (int cell : PATTERNS[pattern]) {
+            index += power * ((int) (own >>> cell & 1) + 2 * (int) (opp >>> cell & 1));
+            power *= 3;
+        }
+        return TABLE_OFFSETS[PATTERN_TABLES[pattern]] + index;
+    }
+
+    /**
+     * This function's purpose is to estimate the final disc differential of the player to move.
+     * The patterns are taken in the order of PATTERNS.
+     * @param own , the discs of the player to move
+     * @param opp , the discs of the opponent
+     * @param unflippables , the unflippable discs of both players
+     * @return the estimate, in hundredths of a disc.
+     */
+    public int evaluate(long own, long opp, long unflippables) {
+        short[] stage = weights[stageOf(Long.bitCount(own | opp))];
+        int score = stage[BIAS];
+        // Top left corner: row 0 and row 1 from the left, 3x3 block
+        score += stage[EDGE + line(row(own, 0), row(opp, 0))];
+        score += stage[NEXT_ROW + line(row(own, 1), row(opp, 1))];
+        score += stage[CORNER + block(own, opp, 0, 1, false)];
+        // Top right corner: column 7 and column 6 from the top
+        score += stage[EDGE + line(column(own, 7), column(opp, 7))];
+        score += stage[NEXT_ROW + line(column(own, 6), column(opp, 6))];
+        score += stage[CORNER + block(own, opp, 0, 1, true)];
+        // Bottom left corner: column 0 and column 1 from the bottom
+        score += stage[EDGE + reversedLine(column(own, 0), column(opp, 0))];
+        score += stage[NEXT_ROW + reversedLine(column(own, 1), column(opp, 1))];
+        score += stage[CORNER + block(own, opp, 7, -1, false)];
+        // Bottom right corner: row 7 and row 6 from the right
+        score += stage[EDGE + reversedLine(row(own, 7), row(opp, 7))];
+        score += stage[NEXT_ROW + reversedLine(row(own, 6), row(opp, 6))];
+        score += stage[CORNER + block(own, opp, 7, -1, true)];
+        // Diagonals, from the top row
+        score += stage[DIAGONAL + line(diagonal(own, MAIN_DIAGONAL), diagonal(opp, MAIN_DIAGONAL))];
+        score += stage[DIAGONAL + reversedLine(diagonal(own, ANTI_DIAGONAL), diagonal(opp, ANTI_DIAGONAL))];
+        score += stage[UNFLIPPABLE] * (Long.bitCount(own & unflippables) - Long.bitCount(opp & unflippables));
+        return score;
+    }
+
+    private static int row(long cells, int row) {
+        return (int) (cells >>> (row * 8)) & 0xFF;
+    }
+
+    private static int column(long cells, int col) {
+        return (int) (((cells >>> col) & FILE_A) * COLUMN_MAGIC >>> 56);
+    }
+
+    /**
+     * Gather the cells of a diagonal into a byte, bit i holding the cell of column i.
+     */
+    private static int diagonal(long cells, long diagonal) {
+        return (int) ((cells & diagonal) * FILE_A >>> 56);
+    }
+
+    private static int line(int own, int opp) {
+        return BASE3[own] + 2 * BASE3[opp];
+    }
+
+    private static int reversedLine(int own, int opp) {
+        return BASE3_REVERSED[own] + 2 * BASE3_REVERSED[opp];
+    }
+
+    /**
+     * The index of a 3x3 corner block, read row by row from the corner.
+     * @param firstRow , the row of the corner
+     * @param step , 1 to go down from the corner, -1 to go up
+     * @param right , true for the corners of column 7, whose rows are read from the right
+     */
+    private static int block(long own, long opp, int firstRow, int step, boolean right) {
+        int index = 0;
+        for (int i = 0, power = 1; i < 3; i++, power *= 27) {
+            int ownRow = row(own, firstRow + i * step);
+            int oppRow = row(opp, firstRow + i * step);
+            index += power * (right ? reversedLine(ownRow & 0xE0, oppRow & 0xE0) : line(ownRow & 7, oppRow & 7));
+        }
+        return index;
+    }
+
+    public int evaluate(BitboardGameLogic board) {
+        boolean first = board.isFirstPlayerTurn();
+        return evaluate(board.getDiscMask(first), board.getDiscMask(!first), board.getUnflippableMask());
+    }
+
+    public static PatternEvaluator load(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(file));
+            if (in.readInt() != MAGIC || in.readInt() != STAGES || in.readInt() != WEIGHTS_PER_STAGE) {
+                throw new IOException("Not a weights file of this version");
+            }
+            short[][] weights = new short[STAGES][WEIGHTS_PER_STAGE];
+            for (short[] stage : weights) {
+                for (int i = 0; i < stage.length; i++) {
+                    stage[i] = in.readShort();
+                }
+            }
+            return new PatternEvaluator(weights);
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            out.writeInt(MAGIC);
+            out.writeInt(STAGES);
+            out.writeInt(WEIGHTS_PER_STAGE);
+            for (short[] stage : weights) {
+                for (short weight : stage) {
+                    out.writeShort(weight);
+                }
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternEvaluatorTest {
+
+    @Test
+    void evaluatesEveryPatternOnce() {
+        // Random weights, so that a wrong index shows in the score
+        Random rand = new Random(7);
+        short[][] weights = new short[PatternEvaluator.STAGES][PatternEvaluator.WEIGHTS_PER_STAGE];
+        for (short[] stage : weights) {
+            for (int i = 0; i < stage.length; i++) {
+                stage[i] = (short) (rand.nextInt(2001) - 1000);
+            }
+        }
+        PatternEvaluator evaluator = new PatternEvaluator(weights);
+        for (int i = 0; i < 2000; i++) {
+            long cells = rand.nextLong();
+            long own = cells & rand.nextLong();
+            long opp = cells & ~own;
+            long unflippables = cells & rand.nextLong() & rand.nextLong();
+            short[] stage = weights[PatternEvaluator.stageOf(Long.bitCount(own | opp))];
+            int expected = stage[PatternEvaluator.BIAS] + stage[PatternEvaluator.UNFLIPPABLE]
+                    * (Long.bitCount(own & unflippables) - Long.bitCount(opp & unflippables));
+            for (int pattern = 0; pattern < PatternEvaluator.PATTERNS.length; pattern++) {
+                expected += stage[PatternEvaluator.weightIndex(pattern, own, opp)];
+            }
+            assertEquals(expected, evaluator.evaluate(own, opp, unflippables), "The line lookups should match the cell by cell indexes.");
+        }
+    }
+
+    @Test
+    void savesAndLoads() throws Exception {
+        short[][] weights = new short[PatternEvaluator.STAGES][PatternEvaluator.WEIGHTS_PER_STAGE];
+        weights[0][PatternEvaluator.BIAS] = 123;
+        weights[0][PatternEvaluator.UNFLIPPABLE] = -45;
+        Path file = Files.createTempFile("weights", ".bin");
+        try {
+            new PatternEvaluator(weights).save(file);
+            PatternEvaluator loaded = PatternEvaluator.load(file);
+            assertEquals(123 - 45, loaded.evaluate(0x18L, 0x1800L, 0x10L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
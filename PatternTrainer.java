@@ -0,0 +1,267 @@
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits the weights of a PatternEvaluator offline.
+ * Headless GameLogic games are played on all the cores by a greedy player which plays a random move from time
+ * to time and spends its special discs at random. Every position of every game is kept with the final disc
+ * differential of the player to move, and the weights of each stage are fitted to those results by least
+ * squares regression with stochastic gradient descent. The weights are saved for PatternEvaluator.load.
+ * <br>Usage: java PatternTrainer [-games N] [-threads N] [-epochs N] [-rate R] [-epsilon E] [-seed S] [-out file]
+ */
+public class PatternTrainer {
+    private static final int PATTERN_COUNT = PatternEvaluator.PATTERNS.length;
+
+    private int games = 20000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int epochs = 12;
+    private double rate = 0.004;
+    private double epsilon = 0.1; // The probability of a random move
+    private long seed = 20250701L;
+    private String out = "pattern-weights.bin";
+
+    /**
+     * The positions of some games: for every position its stage, its weight indexes, the unflippable discs
+     * of the player to move minus those of the opponent, and the final disc differential of the player to move.
+     */
+    private static final class Samples {
+        int size;
+        byte[] stages = new byte[1024];
+        int[] indexes = new int[1024 * PATTERN_COUNT];
+        byte[] unflippables = new byte[1024];
+        byte[] targets = new byte[1024];
+
+        void add(int stage, long own, long opp, long unflippable) {
+            ensureRoom();
+            stages[size] = (byte) stage;
+            for (int pattern = 0; pattern < PATTERN_COUNT; pattern++) {
+                indexes[size * PATTERN_COUNT + pattern] = PatternEvaluator.weightIndex(pattern, own, opp);
+            }
+            unflippables[size] = (byte) (Long.bitCount(own & unflippable) - Long.bitCount(opp & unflippable));
+            size++;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                ensureRoom();
+                stages[size] = other.stages[i];
+                System.arraycopy(other.indexes, i * PATTERN_COUNT, indexes, size * PATTERN_COUNT, PATTERN_COUNT);
+                unflippables[size] = other.unflippables[i];
+                targets[size] = other.targets[i];
+                size++;
+            }
+        }
+
+        private void ensureRoom() {
+            if (size == stages.length) {
+                stages = Arrays.copyOf(stages, size * 2);
+                indexes = Arrays.copyOf(indexes, size * 2 * PATTERN_COUNT);
+                unflippables = Arrays.copyOf(unflippables, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        PatternTrainer trainer = new PatternTrainer();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "-games":
+                    trainer.games = Integer.parseInt(value);
+                    break;
+                case "-threads":
+                    trainer.threads = Integer.parseInt(value);
+                    break;
+                case "-epochs":
+                    trainer.epochs = Integer.parseInt(value);
+                    break;
+                case "-rate":
+                    trainer.rate = Double.parseDouble(value);
+                    break;
+                case "-epsilon":
+                    trainer.epsilon = Double.parseDouble(value);
+                    break;
+                case "-seed":
+                    trainer.seed = Long.parseLong(value);
+                    break;
+                case "-out":
+                    trainer.out = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        trainer.run();
+    }
+
+    private void run() throws Exception {
+        long start = System.nanoTime();
+        Samples samples = playGames();
+        System.out.printf("%d positions from %d games in %.1f s%n", samples.size, games, (System.nanoTime() - start) / 1e9);
+        float[][] weights = fit(samples);
+        PatternEvaluator evaluator = new PatternEvaluator(quantize(weights));
+        evaluator.save(Paths.get(out));
+        System.out.println("Weights written to " + out);
+    }
+
+    /**
+     * This function's purpose is to play the self-play games on the thread pool, each thread taking
+     * a contiguous range of games, and to gather their positions in game order.
+     */
+    private Samples playGames() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Samples>> parts = new ArrayList<>();
+            int chunk = (games + threads - 1) / threads;
+            for (int from = 0; from < games; from += chunk) {
+                int first = from;
+                int last = Math.min(games, from + chunk);
+                parts.add(pool.submit(() -> {
+                    Samples part = new Samples();
+                    for (int game = first; game < last; game++) {
+                        playGame(new Random(seed + game), part);
+                    }
+                    return part;
+                }));
+            }
+            Samples samples = new Samples();
+            for (Future<Samples> part : parts) {
+                samples.addAll(part.get());
+            }
+            return samples;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This function's purpose is to play one game and to add its positions to the samples,
+     * labelled with the final disc differential once the game is over.
+     */
+    private void playGame(Random rand, Samples samples) {
+        GameLogic game = new GameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        MoveAnalysis analysis = new MoveAnalysis(game.getBoardSize());
+        int firstSample = samples.size;
+        long firstPlayerSamples = 0; // Bit i is set when the i-th position of the game had the first player to move
+        while (true) {
+            game.analyzeMoves(analysis);
+            if (analysis.getMoveCount() == 0) {
+                break;
+            }
+            long[] masks = masks(game);
+            boolean first = game.isFirstPlayerTurn();
+            long own = first ? masks[0] : masks[1];
+            long opp = first ? masks[1] : masks[0];
+            if (first) {
+                firstPlayerSamples |= 1L << (samples.size - firstSample);
+            }
+            samples.add(PatternEvaluator.stageOf(Long.bitCount(own | opp)), own, opp, masks[2]);
+
+            int cell = analysis.getMove(rand.nextInt(analysis.getMoveCount()));
+            if (rand.nextDouble() >= epsilon) {
+                for (int i = 0; i < analysis.getMoveCount(); i++) {
+                    if (analysis.getDiscDifferential(analysis.getMove(i)) > analysis.getDiscDifferential(cell)) {
+                        cell = analysis.getMove(i);
+                    }
+                }
+            }
+            Player mover = first ? game.getFirstPlayer() : game.getSecondPlayer();
+            Disc disc = new SimpleDisc(mover);
+            int special = rand.nextInt(20);
+            if (special == 0 && mover.getNumber_of_bombs() > 0) {
+                disc = new BombDisc(mover);
+            } else if (special == 1 && mover.getNumber_of_unflippedable() > 0) {
+                disc = new UnflippableDisc(mover);
+            }
+            game.locate_disc(Position.of(cell / game.getBoardSize(), cell % game.getBoardSize()), disc);
+        }
+        int differential = game.getDiscCount(true) - game.getDiscCount(false);
+        for (int i = firstSample; i < samples.size; i++) {
+            boolean first = (firstPlayerSamples >>> (i - firstSample) & 1) != 0;
+            samples.targets[i] = (byte) (first ? differential : -differential);
+        }
+    }
+
+    /**
+     * This function's purpose is to read the discs of the first player, of the second player and
+     * the unflippable discs of a game into bit masks.
+     */
+    private static long[] masks(PlayableLogic game) {
+        long[] masks = new long[3];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Disc disc = game.getDiscAtPosition(Position.of(row, col));
+                if (disc != null) {
+                    long bit = 1L << (row * 8 + col);
+                    masks[disc.get_owner().isPlayerOne() ? 0 : 1] |= bit;
+                    if (DiscType.of(disc) == DiscType.UNFLIPPABLE) {
+                        masks[2] |= bit;
+                    }
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * This function's purpose is to fit the weights of every stage to the final disc differentials
+     * by stochastic gradient descent on the squared error, the samples being visited in a new order every epoch.
+     * @return the weights in discs, one array per stage.
+     */
+    private float[][] fit(Samples samples) {
+        float[][] weights = new float[PatternEvaluator.STAGES][PatternEvaluator.WEIGHTS_PER_STAGE];
+        int[] order = new int[samples.size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random rand = new Random(seed);
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            double squaredError = 0;
+            for (int sample : order) {
+                float[] stage = weights[samples.stages[sample]];
+                int base = sample * PATTERN_COUNT;
+                int unflippables = samples.unflippables[sample];
+                float prediction = stage[PatternEvaluator.BIAS] + stage[PatternEvaluator.UNFLIPPABLE] * unflippables;
+                for (int pattern = 0; pattern < PATTERN_COUNT; pattern++) {
+                    prediction += stage[samples.indexes[base + pattern]];
+                }
+                float error = samples.targets[sample] - prediction;
+                squaredError += error * error;
+                float step = (float) rate * error;
+                stage[PatternEvaluator.BIAS] += step;
+                stage[PatternEvaluator.UNFLIPPABLE] += step * unflippables;
+                for (int pattern = 0; pattern < PATTERN_COUNT; pattern++) {
+                    stage[samples.indexes[base + pattern]] += step;
+                }
+            }
+            System.out.printf("epoch %d: rms error %.2f discs%n", epoch, Math.sqrt(squaredError / Math.max(1, samples.size)));
+        }
+        return weights;
+    }
+
+    private static short[][] quantize(float[][] weights) {
+        short[][] result = new short[weights.length][];
+        for (int stage = 0; stage < weights.length; stage++) {
+            result[stage] = new short[weights[stage].length];
+            for (int i = 0; i < weights[stage].length; i++) {
+                long value = Math.round(weights[stage][i] * PatternEvaluator.SCALE);
+                result[stage][i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+            }
+        }
+        return result;
+    }
+}
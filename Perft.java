@@ -0,0 +1,372 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the positions reached after exactly D plies from a position (perft), to check a move generator against
+ * GameLogic and to measure its speed. The tree is walked with ValidMoves, locate_disc and undoLastMove only,
+ * so any PlayableLogic can be counted; a game which ends before depth D adds nothing.
+ * <p>
+ * With typed counting every legal cell is played with each disc type the mover still has (a simple disc,
+ * a bomb while the player has bombs, an unflippable disc while it has unflippable discs), otherwise with a
+ * simple disc only. The subtrees of the first plies are counted in parallel on a fork/join pool, each task
+ * replaying its moves on its own game, and the counts of subtrees met again through another order of moves are
+ * kept in a table by Zobrist hash and depth (GameLogic and BitboardGameLogic only).
+ * <p>
+ * Usage: java Perft [-depth D] [-engine gamelogic|bitboard|all] [-typed] [-threads T] [-cacheMb M]
+ * [-size N] [-moves "row,col[b|u] ..."] [-divide]
+ * prints the nodes, the time and the nodes per second of every depth from 1 to D.
+ * With -engine all both engines are counted and a differing count is reported.
+ */
+public class Perft {
+    private static final int SPLIT_PLIES = 2; // The plies whose subtrees are forked
+    private static final int CACHE_MIN_DEPTH = 2; // Smaller subtrees are counted again rather than looked up
+
+    private final Supplier<PlayableLogic> engine;
+    private final int[] line; // The moves from the starting position, see encode
+    private final boolean typed;
+    private final ForkJoinPool pool; // null to count on the calling thread
+    private final Cache cache; // null to count without a table
+    private final LongAdder cacheHits = new LongAdder();
+
+    /**
+     * A table of subtree counts indexed by the hash of the position and depth. Every entry holds the count and
+     * the key XOR the count, so an entry torn by two threads writing it at once does not match its key.
+     */
+    static final class Cache {
+        private final long[] keys;
+        private final long[] counts;
+        private final int mask;
+
+        Cache(int megabytes) {
+            int entries = Integer.highestOneBit(Math.max(1, (int) Math.min(1 << 30, ((long) megabytes << 20) / 16)));
+            keys = new long[entries];
+            counts = new long[entries];
+            mask = entries - 1;
+        }
+
+        long probe(long key) {
+            int index = (int) key & mask;
+            long count = counts[index];
+            return (keys[index] ^ count) == key ? count : -1;
+        }
+
+        void store(long key, long count) {
+            int index = (int) key & mask;
+            counts[index] = count;
+            keys[index] = key ^ count;
+        }
+    }
+
+    /**
+     * @param engine , creates an empty game of the engine to count
+     * @param line , the moves leading to the position to count, see encode
+     * @param typed , true to branch on the disc types too
+     * @param pool , the pool counting the subtrees, null to count on the calling thread
+     * @param cacheMegabytes , the size of the subtree table, 0 for none
+     */
+    public Perft(Supplier<PlayableLogic> engine, int[] line, boolean typed, ForkJoinPool pool, int cacheMegabytes) {
+        this.engine = engine;
+        this.line = line.clone();
+        this.typed = typed;
+        this.pool = pool;
+        this.cache = cacheMegabytes > 0 ? new Cache(cacheMegabytes) : null;
+    }
+
+    /**
+     * This function's purpose is to pack a move of a line: the cell index (row * board size + col) and its
+     * DiscType code, like TypedMoves.encode.
+     */
+    public static int encode(int cell, int type) {
+        return TypedMoves.encode(cell, type);
+    }
+
+    /**
+     * This function's purpose is to count the positions reached after exactly depth plies.
+     * The subtree table is kept from one call to the next, its entries are exact for any depth.
+     */
+    public long count(int depth) {
+        if (pool == null) {
+            return count(newGame(line, line.length), depth);
+        }
+        return pool.invoke(new Subtree(line, line.length, depth, 0));
+    }
+
+    /**
+     * This function's purpose is to count every move of the position separately.
+     * @return the count of every legal cell and disc type, in the order of ValidMoves.
+     */
+    public List<String> divide(int depth) {
+        PlayableLogic game = newGame(line, line.length);
+        List<String> result = new ArrayList<>();
+        int size = game.getBoardSize();
+        for (Position move : new ArrayList<>(game.ValidMoves())) {
+            for (int type = DiscType.SIMPLE; type < DiscType.COUNT; type++) {
+                if (!canPlay(game, type)) {
+                    continue;
+                }
+                int[] child = Arrays.copyOf(line, line.length + 1);
+                child[line.length] = encode(move.row() * size + move.col(), type);
+                long nodes = depth <= 1 ? 1 : new Perft(engine, child, typed, pool, 0).count(depth - 1);
+                result.add(move + DiscType.symbol(type) + ": " + nodes);
+            }
+        }
+        return result;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * The count of the subtree after some moves of a line, forked into a task per move on the first plies.
+     */
+    private final class Subtree extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private final int[] path;
+        private final int pathLength;
+        private final int depth;
+        private final int ply;
+
+        Subtree(int[] path, int pathLength, int depth, int ply) {
+            this.path = path;
+            this.pathLength = pathLength;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            PlayableLogic game = newGame(path, pathLength);
+            if (ply >= SPLIT_PLIES || depth <= 2) {
+                return count(game, depth);
+            }
+            int size = game.getBoardSize();
+            List<Subtree> children = new ArrayList<>();
+            for (Position move : game.ValidMoves()) {
+                for (int type = DiscType.SIMPLE; type < DiscType.COUNT; type++) {
+                    if (canPlay(game, type)) {
+                        int[] childPath = Arrays.copyOf(path, pathLength + 1);
+                        childPath[pathLength] = encode(move.row() * size + move.col(), type);
+                        children.add(new Subtree(childPath, pathLength + 1, depth - 1, ply + 1));
+                    }
+                }
+            }
+            long nodes = 0;
+            for (Subtree child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * This function's purpose is to create a game of the engine and to play the first moves of a line on it.
+     */
+    private PlayableLogic newGame(int[] path, int length) {
+        PlayableLogic game = engine.get();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        int size = game.getBoardSize();
+        for (int i = 0; i < length; i++) {
+            int cell = TypedMoves.cell(path[i]);
+            int type = TypedMoves.type(path[i]);
+            if (!game.locate_disc(Position.of(cell / size, cell % size), DiscType.newDisc(type, mover(game)))) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " of the line is not legal: "
+                        + Position.of(cell / size, cell % size) + DiscType.symbol(type));
+            }
+        }
+        return game;
+    }
+
+    /**
+     * This function's purpose is to count the positions reached after exactly depth plies, with make and undo.
+     * The last ply is counted from the number of legal moves without playing them.
+     */
+    private long count(PlayableLogic game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        List<Position> moves = game.ValidMoves();
+        if (depth == 1) {
+            return (long) moves.size() * typeCount(game);
+        }
+        long hash = cache != null && depth >= CACHE_MIN_DEPTH ? hashOf(game) : 0;
+        long key = hash + depth * 0x9E3779B97F4A7C15L;
+        if (hash != 0) {
+            long cached = cache.probe(key);
+            if (cached >= 0) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+        long nodes = 0;
+        Player mover = mover(game);
+        for (Position move : moves) {
+            for (int type = DiscType.SIMPLE; type < DiscType.COUNT; type++) {
+                if (canPlay(game, type)) {
+                    game.locate_disc(move, DiscType.newDisc(type, mover));
+                    nodes += count(game, depth - 1);
+                    game.undoLastMove();
+                }
+            }
+        }
+        if (hash != 0) {
+            cache.store(key, nodes);
+        }
+        return nodes;
+    }
+
+    private static Player mover(PlayableLogic game) {
+        return game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+    }
+
+    /**
+     * This function's purpose is to tell whether the mover may place a disc of a type, with typed counting.
+     */
+    private boolean canPlay(PlayableLogic game, int type) {
+        switch (type) {
+            case DiscType.SIMPLE:
+                return true;
+            case DiscType.BOMB:
+                return typed && mover(game).getNumber_of_bombs() > 0;
+            default:
+                return typed && mover(game).getNumber_of_unflippedable() > 0;
+        }
+    }
+
+    private int typeCount(PlayableLogic game) {
+        return 1 + (canPlay(game, DiscType.BOMB) ? 1 : 0) + (canPlay(game, DiscType.UNFLIPPABLE) ? 1 : 0);
+    }
+
+    /**
+     * Get the Zobrist hash of a game, 0 for the engines which do not keep one (then nothing is cached).
+     */
+    private static long hashOf(PlayableLogic game) {
+        if (game instanceof GameLogic) {
+            return ((GameLogic) game).getZobristHash();
+        }
+        if (game instanceof BitboardGameLogic) {
+            return ((BitboardGameLogic) game).getZobristHash();
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) {
+        int depth = 6;
+        String engineName = "gamelogic";
+        boolean typed = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheMb = 64;
+        int size = GameLogic.DEFAULT_BOARD_SIZE;
+        String moves = "";
+        boolean divide = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-engine":
+                    engineName = args[++i].toLowerCase();
+                    break;
+                case "-typed":
+                    typed = true;
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-cacheMb":
+                    cacheMb = Integer.parseInt(args[++i]);
+                    break;
+                case "-size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                case "-moves":
+                    moves = args[++i];
+                    break;
+                case "-divide":
+                    divide = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        int boardSize = size;
+        List<String> names = new ArrayList<>();
+        List<Supplier<PlayableLogic>> engines = new ArrayList<>();
+        if (engineName.equals("gamelogic") || engineName.equals("all")) {
+            names.add("gamelogic");
+            engines.add(() -> new GameLogic(boardSize));
+        }
+        if (engineName.equals("bitboard") || engineName.equals("all")) {
+            names.add("bitboard");
+            engines.add(BitboardGameLogic::new);
+        }
+        if (engines.isEmpty()) {
+            throw new IllegalArgumentException("Unknown engine: " + engineName);
+        }
+        int[] line = parseLine(moves, size);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+        System.out.printf("perft from %d moves, %s, %d threads, %d MB table%n",
+                line.length, typed ? "typed" : "simple discs", threads, cacheMb);
+        System.out.println("engine, depth, nodes, millis, nodes/s, table hits");
+        long[][] counts = new long[engines.size()][depth + 1];
+        for (int e = 0; e < engines.size(); e++) {
+            Perft perft = new Perft(engines.get(e), line, typed, pool, cacheMb);
+            for (int d = 1; d <= depth; d++) {
+                long hitsBefore = perft.getCacheHits();
+                long start = System.nanoTime();
+                long nodes = perft.count(d);
+                long nanos = System.nanoTime() - start;
+                counts[e][d] = nodes;
+                System.out.printf("%s, %d, %d, %.1f, %.0f, %d%n", names.get(e), d, nodes, nanos / 1e6,
+                        nodes / Math.max(1e-9, nanos / 1e9), perft.getCacheHits() - hitsBefore);
+            }
+            if (divide) {
+                for (String count : perft.divide(depth)) {
+                    System.out.println(count);
+                }
+            }
+        }
+        for (int e = 1; e < engines.size(); e++) {
+            for (int d = 1; d <= depth; d++) {
+                if (counts[e][d] != counts[0][d]) {
+                    System.out.printf("MISMATCH at depth %d: %s counts %d, %s counts %d%n",
+                            d, names.get(0), counts[0][d], names.get(e), counts[e][d]);
+                }
+            }
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This function's purpose is to read a line of moves written as "row,col" with an optional b (bomb)
+     * or u (unflippable) suffix, separated by spaces.
+     */
+    static int[] parseLine(String moves, int size) {
+        String trimmed = moves.trim();
+        if (trimmed.isEmpty()) {
+            return new int[0];
+        }
+        String[] tokens = trimmed.split("\\s+");
+        int[] line = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            int type = DiscType.SIMPLE;
+            if (token.endsWith("b")) {
+                type = DiscType.BOMB;
+            } else if (token.endsWith("u")) {
+                type = DiscType.UNFLIPPABLE;
+            }
+            String[] cell = token.replaceAll("[bu]$", "").split(",");
+            line[i] = encode(Integer.parseInt(cell[0]) * size + Integer.parseInt(cell[1]), type);
+        }
+        return line;
+    }
+}
@@ -0,0 +1,33 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @Test
+    void enginesCountTheSameTrees() {
+        int[] line = Perft.parseLine("4,2 3,2b", 8);
+        for (int depth = 1; depth <= 4; depth++) {
+            long expected = new Perft(GameLogic::new, line, true, null, 0).count(depth);
+            assertEquals(expected, new Perft(BitboardGameLogic::new, line, true, null, 0).count(depth),
+                    "The bitboard engine should count the tree of GameLogic at depth " + depth);
+        }
+    }
+
+    @Test
+    void forkedAndCachedCountsMatch() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Perft plain = new Perft(GameLogic::new, new int[0], true, null, 0);
+            Perft fast = new Perft(GameLogic::new, new int[0], true, pool, 1);
+            for (int depth = 1; depth <= 5; depth++) {
+                assertEquals(plain.count(depth), fast.count(depth));
+            }
+            assertTrue(fast.getCacheHits() > 0, "Transpositions should be found in the table.");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,13 +1,42 @@
 public class Position
 {
-    private int row;
-    private int col;
+    private static final int TABLE_SIZE = 8;
+    // The shared instances of the cells of an 8x8 board, see of(row, col)
+    private static final Position[][] TABLE = new Position[TABLE_SIZE][TABLE_SIZE];
+
+    static
+    {
+        for (int row = 0; row < TABLE_SIZE; row++)
+        {
+            for (int col = 0; col < TABLE_SIZE; col++)
+            {
+                TABLE[row][col] = new Position(row, col);
+            }
+        }
+    }
+
+    private final int row;
+    private final int col;
 
     public Position(int x, int y)
     {
         this.row = x;
         this.col = y;
     }
+
+    /**
+     * Get the position of a cell without creating an object when the cell is on an 8x8 board.
+     * Positions are compared by value, so the shared instance can be used wherever a new one was.
+     */
+    public static Position of(int row, int col)
+    {
+        if (row >= 0 && row < TABLE_SIZE && col >= 0 && col < TABLE_SIZE)
+        {
+            return TABLE[row][col];
+        }
+        return new Position(row, col);
+    }
+
     public int row()
     {
         return row;
@@ -28,4 +57,31 @@ public class Position
     {
         return new Position(pos.row(), pos.col());
     }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof Position))
+        {
+            return false;
+        }
+        Position other = (Position) o;
+        return row == other.row && col == other.col;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return row * 31 + col;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "(" + row + ", " + col + ")";
+    }
 }
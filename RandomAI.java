@@ -1,71 +1,37 @@
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
+/**
+ * An AI player which plays a random move among all the moves it can make: every legal cell with a simple disc,
+ * and with a bomb or an unflippable disc while it has some left (see AnalyzableLogic.generateTypedMoves).
+ */
 public class RandomAI extends AIPlayer {
 
-    private final SimpleDisc simpleDisc;
-    private final BombDisc bombDisc;
-    private final UnflippableDisc unflippableDisc;
-    private int unflipped;
-    private int bombed;
+    private final Random rand = new Random();
+    private TypedMoves moves; // Filled again on every move
 
     public RandomAI(boolean isPlayerOne) {
         super(isPlayerOne);
-        this.simpleDisc = new SimpleDisc(this);
-        this.bombDisc = new BombDisc(this);
-        this.unflippableDisc = new UnflippableDisc(this);
-        this.unflipped = 2;
-        this.bombed = 3;
     }
 
     @Override
     public Move makeMove(PlayableLogic gameStatus)
     {
+        long start = System.nanoTime();
         if (gameStatus.isGameFinished())
         {
-            return null; // Game is finished; no move to make
+            return EngineMetrics.decided(this, null, start, 0, 0); // Game is finished; no move to make
         }
-            Random rand = new Random();
-            List<Position> moves = gameStatus.ValidMoves();
-            if (moves.isEmpty())
-            {
-                return null; // No valid moves available, return null
-            }
-            int randomNum = rand.nextInt(moves.size());
-            Disc aiDisc = randomDiscsType();
-            if(bombed > 0)
-            {
-                if(aiDisc.getType().equals(bombDisc.getType()))
-                {
-                    bombed--;
-                    aiDisc = new BombDisc(this);
-                    return new Move(moves.get(randomNum), aiDisc);
-                }
-            }
-            if(unflipped > 0)
-            {
-                if (aiDisc.getType().equals(unflippableDisc.getType())) {
-                    unflipped--;
-                    aiDisc = new UnflippableDisc(this);
-                    return new Move(moves.get(randomNum), aiDisc);
-                }
-            }
-            if(bombed == 0 || unflipped == 0)
-            {
-                aiDisc = new SimpleDisc(this);
-            }
-        return new Move(moves.get(randomNum), aiDisc);
-    }
-
-    private Disc randomDiscsType()
-    {
-        Random rand = new Random();
-        ArrayList<Disc> discs = new ArrayList<>();
-        discs.add(simpleDisc);
-        discs.add(bombDisc);
-        discs.add(unflippableDisc);
-        int randomNum1 = rand.nextInt(3);
-        return discs.get(randomNum1);
+        int size = gameStatus.getBoardSize();
+        if (moves == null || moves.getBoardSize() != size)
+        {
+            moves = new TypedMoves(size);
+        }
+        AnalyzableLogic.of(gameStatus).generateTypedMoves(moves); // The special discs are only offered while some are left
+        if (moves.getMoveCount() == 0)
+        {
+            return EngineMetrics.decided(this, null, start, 0, 0); // No valid moves available, return null
+        }
+        Move move = moves.toMove(rand.nextInt(moves.getMoveCount()), this);
+        return EngineMetrics.decided(this, move, start, 0, 0);
     }
 }
@@ -0,0 +1,88 @@
+import javax.swing.*;
+import javax.swing.plaf.ColorUIResource;
+import java.awt.*;
+import java.io.IOException;
+
+/**
+ * Starts the game like Main, with the engine chosen from the system properties, the moves printed to the console
+ * and the AI players thinking off the event thread, so the window does not freeze while they search.
+ * <p>
+ * Usage: java [-Dreversi.bitboard=true] [-Dreversi.board.size=N] [-Dreversi.log=FILE] ReversiLauncher
+ * With -Dreversi.bitboard=true the game is played on the bitboard engine, with -Dreversi.board.size=N on an NxN board.
+ * With -Dreversi.log=FILE the moves are written to the file by an AsyncGameEventLogger instead of the console.
+ */
+public class ReversiLauncher {
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            // Set the UIManager properties
+            UIManager.put("Button.focus", new ColorUIResource(new Color(0, 0, 0, 0)));
+            UIManager.put("Button.select", new ColorUIResource(new Color(0, 0, 0, 0)));
+
+            // Manually register all AI player subclasses
+            AIPlayer.registerAllAIPlayers();
+
+            AnalyzableLogic gameLogic = createGameLogic();
+            gameLogic.setGameEventListener(createGameEventListener());
+
+            // Create and show the game GUI
+            GUI_for_chess_like_games gui = new GUI_for_chess_like_games(gameLogic, "Reversi Game");
+            gui.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            gui.pack();
+            gui.setLocationRelativeTo(null); // Center on screen
+            gui.setVisible(true);
+
+            // Show player selection dialog
+            Player[] players = initializePlayers(gui);
+
+            // Initialize the game with selected players
+            gameLogic.setPlayers(players[0], players[1]);
+
+            // Restart the game
+            gui.resetGame();
+        });
+    }
+
+    /**
+     * This function's purpose is to create the game logic chosen by the reversi.bitboard and reversi.board.size
+     * system properties.
+     */
+    static AnalyzableLogic createGameLogic() {
+        if (Boolean.getBoolean("reversi.bitboard")) {
+            return new BitboardGameLogic();
+        }
+        return new GameLogic(Integer.getInteger("reversi.board.size", GameLogic.DEFAULT_BOARD_SIZE));
+    }
+
+    /**
+     * This function's purpose is to create the listener printing the moves: to the file named by the reversi.log
+     * system property, written on a background thread until the program exits, otherwise to the console.
+     */
+    static GameEventListener createGameEventListener() {
+        String fileName = System.getProperty("reversi.log");
+        if (fileName == null) {
+            return new ConsoleGameEventListener();
+        }
+        try {
+            AsyncGameEventLogger logger = new AsyncGameEventLogger(fileName);
+            // The window exits the program when it is closed, the pending moves are written then
+            Runtime.getRuntime().addShutdownHook(new Thread(logger::close));
+            return logger.forGame(0);
+        } catch (IOException e) {
+            System.err.println("Cannot write the moves to " + fileName + ": " + e.getMessage());
+            return new ConsoleGameEventListener();
+        }
+    }
+
+    private static Player[] initializePlayers(JFrame parent) {
+        Main.PlayerSelectionDialog dialog = new Main.PlayerSelectionDialog(parent);
+        dialog.setVisible(true);
+
+        Player firstPlayer = dialog.isFirstPlayerHuman() ? new HumanPlayer(true)
+                : new AsyncAIPlayer(AIPlayer.createAIPlayer(dialog.getSelectedFirstPlayerAI(), true));
+        Player secondPlayer = dialog.isSecondPlayerHuman() ? new HumanPlayer(false)
+                : new AsyncAIPlayer(AIPlayer.createAIPlayer(dialog.getSelectedSecondPlayerAI(), false));
+
+        return new Player[]{firstPlayer, secondPlayer};
+    }
+}
@@ -1,7 +1,6 @@
 public class SimpleDisc implements Disc
 {
     private Player _owner;
-    private Disc[][] _board;
 
     public SimpleDisc(Player owner)
     {
@@ -23,8 +22,4 @@ public class SimpleDisc implements Disc
     public String getType() {
         return "⬤";
     }
-//    public Disc[][] get_board()
-//    {
-//        return _board;
-//    }
 }
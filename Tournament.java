@@ -0,0 +1,315 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Plays AI-vs-AI games without any user interface, on all the cores of the machine.
+ * Every game gets its own game logic and its own AI players, and the colors alternate from game to game.
+ * For every pair of AI types the wins, losses and draws of the first type are reported,
+ * with the Elo difference they imply and its 95% confidence interval, and the number of games per second.
+ * <p>
+ * Usage: java Tournament [-games N] [-pairs A:B,C:D] [-millis M] [-threads T] [-engine bitboard|gamelogic]
+ * [-record file]
+ * <br>Without -pairs every registered AI type plays every other one. -millis is the thinking time per move
+ * of the searching AIs (AlphaBetaAI and MCTSAI), which search with one thread since the games already run in parallel.
+ * With -record every game is saved in a game-record file (see GameRecordWriter), the AI types being its player names.
+ * With -Dreversi.metrics=true the engine metrics (see EngineMetrics) are published through JMX and printed at the end.
+ */
+public class Tournament {
+    private final int gamesPerPair;
+    private final int threads;
+    private final long millisPerMove;
+    private final Supplier<AnalyzableLogic> engine;
+    private GameRecordWriter recordWriter;
+    private List<String> recordPlayers;
+
+    /**
+     * The results of one AI type against another, from the point of view of the first type.
+     */
+    public static class PairResult {
+        private final String first;
+        private final String second;
+        private final AtomicInteger wins = new AtomicInteger();
+        private final AtomicInteger losses = new AtomicInteger();
+        private final AtomicInteger draws = new AtomicInteger();
+        private long elapsedNanos;
+
+        PairResult(String first, String second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public int getWins() {
+            return wins.get();
+        }
+
+        public int getLosses() {
+            return losses.get();
+        }
+
+        public int getDraws() {
+            return draws.get();
+        }
+
+        public int getGames() {
+            return getWins() + getLosses() + getDraws();
+        }
+
+        /**
+         * Get the average score of the first type, counting a win as 1 and a draw as 0.5.
+         */
+        public double getScore() {
+            return getGames() == 0 ? 0.5 : (getWins() + 0.5 * getDraws()) / getGames();
+        }
+
+        /**
+         * Get the Elo difference between the first and the second type implied by the score.
+         */
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        /**
+         * Get the half width of the 95% confidence interval of the score, from the variance of the game results.
+         */
+        private double scoreMargin() {
+            int games = getGames();
+            if (games == 0) {
+                return 0;
+            }
+            double s = getScore();
+            double variance = (getWins() * (1 - s) * (1 - s) + getDraws() * (0.5 - s) * (0.5 - s)
+                    + getLosses() * s * s) / games;
+            return 1.96 * Math.sqrt(variance / games);
+        }
+
+        public double getEloLow() {
+            return elo(getScore() - scoreMargin());
+        }
+
+        public double getEloHigh() {
+            return elo(getScore() + scoreMargin());
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        private static double elo(double score) {
+            if (score <= 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (score >= 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return -400 * Math.log10(1 / score - 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s vs %s: +%d -%d =%d, Elo %+.0f [%+.0f, %+.0f], %.1f games/s",
+                    first, second, getWins(), getLosses(), getDraws(),
+                    getElo(), getEloLow(), getEloHigh(), getGamesPerSecond());
+        }
+    }
+
+    public Tournament(int gamesPerPair, int threads, long millisPerMove, Supplier<AnalyzableLogic> engine) {
+        this.gamesPerPair = gamesPerPair;
+        this.threads = threads;
+        this.millisPerMove = millisPerMove;
+        this.engine = engine;
+    }
+
+    /**
+     * Save every game played from now on in a game-record file.
+     * @param writer , the file's writer, the tournament does not close it
+     * @param playerNames , the player names of the file, the AI types of the games must be among them
+     */
+    public void setRecordWriter(GameRecordWriter writer, List<String> playerNames) {
+        this.recordWriter = writer;
+        this.recordPlayers = playerNames;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long millis = 10;
+        String pairs = null;
+        String record = null;
+        Supplier<AnalyzableLogic> engine = BitboardGameLogic::new;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-millis":
+                    millis = Long.parseLong(args[i + 1]);
+                    break;
+                case "-pairs":
+                    pairs = args[i + 1];
+                    break;
+                case "-engine":
+                    engine = args[i + 1].equalsIgnoreCase("gamelogic") ? GameLogic::new : BitboardGameLogic::new;
+                    break;
+                case "-record":
+                    record = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        AIPlayer.registerAllAIPlayers();
+        List<String[]> matchups = new ArrayList<>();
+        if (pairs == null) {
+            List<String> types = AIPlayer.getAIPlayerTypes();
+            for (int a = 0; a < types.size(); a++) {
+                for (int b = a + 1; b < types.size(); b++) {
+                    matchups.add(new String[]{types.get(a), types.get(b)});
+                }
+            }
+        } else {
+            for (String pair : pairs.split(",")) {
+                matchups.add(pair.split(":"));
+            }
+        }
+
+        Tournament tournament = new Tournament(games, threads, millis, engine);
+        GameRecordWriter writer = null;
+        if (record != null) {
+            List<String> names = new ArrayList<>();
+            for (String[] matchup : matchups) {
+                for (String type : matchup) {
+                    if (!names.contains(type)) {
+                        names.add(type);
+                    }
+                }
+            }
+            writer = new GameRecordWriter(Paths.get(record), names);
+            tournament.setRecordWriter(writer, names);
+        }
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            for (String[] matchup : matchups) {
+                PairResult result = tournament.play(matchup[0], matchup[1]);
+                System.out.println(result);
+                total += result.getGames();
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        System.out.printf("%d games in %.1f s, %.1f games/s on %d threads%n",
+                total, (System.nanoTime() - start) / 1e9, total * 1e9 / (System.nanoTime() - start), threads);
+        if (EngineMetrics.ENABLED) {
+            System.out.println(EngineMetrics.get());
+        }
+    }
+
+    /**
+     * This function's purpose is to play all the games of one pair of AI types in parallel.
+     * @param first , the registered name of the first AI type
+     * @param second , the registered name of the second AI type
+     */
+    public PairResult play(String first, String second) {
+        PairResult result = new PairResult(first, second);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> games = new ArrayList<>();
+            for (int game = 0; game < gamesPerPair; game++) {
+                boolean firstStarts = game % 2 == 0;
+                games.add(pool.submit(() -> {
+                    int diff = playGame(firstStarts ? first : second, firstStarts ? second : first);
+                    int firstDiff = firstStarts ? diff : -diff;
+                    if (firstDiff > 0) {
+                        result.wins.incrementAndGet();
+                    } else if (firstDiff < 0) {
+                        result.losses.incrementAndGet();
+                    } else {
+                        result.draws.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> game : games) {
+                game.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during the tournament", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } finally {
+            result.elapsedNanos = System.nanoTime() - start;
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * This function's purpose is to play one game to the end.
+     * A player which makes an illegal move loses the game with every disc.
+     * @param firstType , the registered name of the AI type playing first
+     * @param secondType , the registered name of the AI type playing second
+     * @return the final disc count of the first player minus the second player's.
+     */
+    int playGame(String firstType, String secondType) {
+        AIPlayer firstPlayer = createPlayer(firstType, true);
+        AIPlayer secondPlayer = createPlayer(secondType, false);
+        AnalyzableLogic game = engine.get();
+        game.setPlayers(firstPlayer, secondPlayer);
+        GameRecorder recorder = null;
+        if (recordWriter != null) {
+            recorder = new GameRecorder(game.getBoardSize());
+            game.setGameEventListener(recorder);
+        }
+        int cells = game.getBoardSize() * game.getBoardSize();
+        int result = 0;
+        boolean forfeit = false;
+        while (!game.ValidMoves().isEmpty()) {
+            AIPlayer current = game.isFirstPlayerTurn() ? firstPlayer : secondPlayer;
+            Move move = current.makeMove(game);
+            if (move == null || !game.locate_disc(move.position(), move.disc())) {
+                result = current == firstPlayer ? -cells : cells;
+                forfeit = true;
+                break;
+            }
+        }
+        if (!forfeit) {
+            result = game.getDiscCount(true) - game.getDiscCount(false);
+        }
+        if (recorder != null) {
+            try {
+                recordWriter.writeGame(recordPlayers.indexOf(firstType), recordPlayers.indexOf(secondType), result, recorder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    private AIPlayer createPlayer(String type, boolean isPlayerOne) {
+        AIPlayer player = AIPlayer.createAIPlayer(type, isPlayerOne);
+        if (player instanceof AlphaBetaAI) {
+            ((AlphaBetaAI) player).setTimeBudgetMillis(millisPerMove);
+            ((AlphaBetaAI) player).setThreads(1);
+        } else if (player instanceof MCTSAI) {
+            ((MCTSAI) player).setTimeBudgetMillis(millisPerMove);
+            ((MCTSAI) player).setThreads(1);
+        }
+        return player;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table which remembers search results by Zobrist hash.
+ * Entries live in a primitive long[]: one long for the hash and one for the packed result.
+ * The hash is stored XORed with the result, so an entry torn by two threads writing at once
+ * simply fails the check on the next probe; this lets every AI player of the process share
+ * one table without locks (see shared()).
+ * A new result replaces the stored one when it was searched at least as deep, or when the stored
+ * one belongs to an older search.
+ * The packed result holds the score (32 bits), the depth (8 bits), the bound (2 bits),
+ * the best move + 1 (12 bits) and the search generation (8 bits).
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; // The score is at least the stored one (the search failed high)
+    public static final int UPPER_BOUND = 3; // The score is at most the stored one (the search failed low)
+
+    private static final int DEFAULT_SIZE_MB = Integer.getInteger("reversi.tt.mb", 16);
+    private static volatile TranspositionTable shared;
+
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Create a table using at most the given amount of memory.
+     *
+     * @param sizeMb the memory budget in megabytes, rounded down to a power of two number of entries.
+     */
+    public TranspositionTable(int sizeMb) {
+        long slots = Math.max(1, (long) sizeMb * 1024 * 1024 / 16);
+        int size = Integer.highestOneBit((int) Math.min(slots, 1 << 30));
+        this.entries = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Get the table shared by all the AI players of the process.
+     * Its size is read from the "reversi.tt.mb" system property (16 MB when it is not set).
+     */
+    public static TranspositionTable shared() {
+        TranspositionTable table = shared;
+        if (table == null) {
+            synchronized (TranspositionTable.class) {
+                table = shared;
+                if (table == null) {
+                    table = new TranspositionTable(DEFAULT_SIZE_MB);
+                    shared = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Look a position up.
+     *
+     * @param key the Zobrist hash of the position.
+     * @return the packed result (read it with score, depth, bound and move), or 0 if the position is not stored.
+     */
+    public long probe(long key) {
+        int index = ((int) key & mask) * 2;
+        long data = entries[index + 1];
+        probes.increment();
+        if (data == 0) {
+            return 0;
+        }
+        if ((entries[index] ^ data) != key) {
+            collisions.increment(); // The slot holds another position
+            return 0;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Store a search result.
+     *
+     * @param key   the Zobrist hash of the position.
+     * @param depth the depth the position was searched to.
+     * @param score the score found by the search.
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+     * @param move  the best move found (see TypedMoves.encode), or -1.
+     */
+    public void store(long key, int depth, int score, int bound, int move) {
+        int index = ((int) key & mask) * 2;
+        long old = entries[index + 1];
+        if (old != 0 && generation(old) == (generation & 0xFF) && depth(old) > depth) {
+            return; // Keep the deeper result of the current search
+        }
+        long data = (score & 0xFFFFFFFFL)
+                | (long) Math.min(depth, 255) << 32
+                | (long) bound << 40
+                | (long) (move + 1 & 0xFFF) << 42
+                | (long) (generation & 0xFF) << 54;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+        stores.increment();
+    }
+
+    /**
+     * Mark the start of a new search, so that the results of older searches are replaced first.
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    public static int move(long data) {
+        return ((int) (data >>> 42) & 0xFFF) - 1;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 54) & 0xFF;
+    }
+
+    /**
+     * Empty the table and its statistics.
+     */
+    public void clear() {
+        java.util.Arrays.fill(entries, 0);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of probes which found the slot taken by another position.
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Get the number of positions the table can hold.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get the memory used by the entries, in bytes.
+     */
+    public long getMemoryBytes() {
+        return (long) entries.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,38 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void storesAndProbes() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, 5, -1234, TranspositionTable.LOWER_BOUND, TypedMoves.encode(19, DiscType.BOMB));
+        long entry = table.probe(42L);
+        assertNotEquals(0L, entry, "The stored position should be found.");
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(TypedMoves.encode(19, DiscType.BOMB), TranspositionTable.move(entry));
+        assertEquals(0L, table.probe(43L), "An unknown position should not be found.");
+        assertEquals(1, table.getHits());
+        assertEquals(2, table.getProbes());
+    }
+
+    @Test
+    void prefersDeeperResults() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 7L;
+        long other = key + table.getCapacity(); // Same slot, different position
+        table.store(key, 8, 10, TranspositionTable.EXACT, -1);
+        table.store(other, 3, 20, TranspositionTable.EXACT, -1);
+        assertEquals(8, TranspositionTable.depth(table.probe(key)), "A shallower result should not replace a deeper one.");
+        assertEquals(0L, table.probe(other));
+        assertEquals(1, table.getCollisions());
+
+        table.newSearch();
+        table.store(other, 3, 20, TranspositionTable.EXACT, -1);
+        assertEquals(20, TranspositionTable.score(table.probe(other)), "Results of an older search should be replaced.");
+        assertEquals(16L * table.getCapacity(), table.getMemoryBytes());
+    }
+}
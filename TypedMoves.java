@@ -0,0 +1,81 @@
+/**
+ * The result of AnalyzableLogic.generateTypedMoves: every move the player to move can make, as (cell, disc type)
+ * pairs. A bomb or unflippable placement is only listed while the player has such discs left, so the number of
+ * moves is the real branching factor of the game.
+ * The moves are packed into ints (see encode) and kept in one primitive array, so one instance can be filled again
+ * on every ply without creating objects.
+ */
+public class TypedMoves {
+    private final int boardSize;
+    private final int[] moves; // In row major order of the cells, the types of a cell in increasing code order
+    private int moveCount;
+
+    public TypedMoves(int boardSize) {
+        this.boardSize = boardSize;
+        this.moves = new int[boardSize * boardSize * DiscType.COUNT];
+    }
+
+    /**
+     * This function's purpose is to pack a move: the cell index (row * board size + col) and its DiscType code.
+     */
+    public static int encode(int cell, int type) {
+        return cell << 2 | type;
+    }
+
+    public static int cell(int move) {
+        return move >>> 2;
+    }
+
+    public static int type(int move) {
+        return move & 3;
+    }
+
+    /**
+     * Forget the moves of the last generation.
+     */
+    void clear() {
+        moveCount = 0;
+    }
+
+    /**
+     * Record the moves on a legal cell, the cells must be added in row major order.
+     * @param cell , the cell index of the move
+     * @param bombs , true if the player may still place a bomb disc
+     * @param unflippables , true if the player may still place an unflippable disc
+     */
+    void add(int cell, boolean bombs, boolean unflippables) {
+        moves[moveCount++] = encode(cell, DiscType.SIMPLE);
+        if (bombs) {
+            moves[moveCount++] = encode(cell, DiscType.BOMB);
+        }
+        if (unflippables) {
+            moves[moveCount++] = encode(cell, DiscType.UNFLIPPABLE);
+        }
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Get the number of moves, every disc type counted.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Get the i-th move, see encode.
+     */
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    /**
+     * This function's purpose is to make the Move object of the i-th move, for the player who places the disc.
+     */
+    public Move toMove(int i, Player owner) {
+        int cell = cell(moves[i]);
+        return new Move(Position.of(cell / boardSize, cell % boardSize), DiscType.newDisc(type(moves[i]), owner));
+    }
+}
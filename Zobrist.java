@@ -0,0 +1,68 @@
+/**
+ * This class holds the random keys of the 64-bit Zobrist hash of a game position.
+ * A position's hash is the XOR of one key per occupied cell (chosen by the owner and the type of the disc),
+ * a key when the second player is to move, and one key per player for the number of bomb discs
+ * and unflippable discs the player may still place. GameLogic and BitboardGameLogic use the same keys,
+ * so the same position has the same hash in both engines. There are keys for the cells of the largest GameLogic board.
+ */
+public final class Zobrist {
+    private static final int CELLS = GameLogic.MAX_BOARD_SIZE * GameLogic.MAX_BOARD_SIZE;
+    private static final int MAX_INVENTORY = 8;
+
+    private static final long[] CELL_KEYS = new long[CELLS * 2 * DiscType.COUNT];
+    private static final long[] BOMB_KEYS = new long[2 * MAX_INVENTORY];
+    private static final long[] UNFLIPPABLE_KEYS = new long[2 * MAX_INVENTORY];
+    private static final long SECOND_PLAYER_KEY;
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < CELL_KEYS.length; i++) {
+            CELL_KEYS[i] = seed = splitMix(seed);
+        }
+        for (int i = 0; i < BOMB_KEYS.length; i++) {
+            BOMB_KEYS[i] = seed = splitMix(seed);
+            UNFLIPPABLE_KEYS[i] = seed = splitMix(seed);
+        }
+        SECOND_PLAYER_KEY = splitMix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    private static long splitMix(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the key of a disc on a cell.
+     *
+     * @param cell the cell index (row * board size + col).
+     * @param side 0 for a disc of the first player, 1 for the second player.
+     * @param type the type code of the disc (see DiscType).
+     */
+    public static long cell(int cell, int side, int type) {
+        return CELL_KEYS[(cell * 2 + side) * DiscType.COUNT + type];
+    }
+
+    /**
+     * Get the key to XOR when a disc on a cell changes owner.
+     */
+    public static long flip(int cell, int type) {
+        return cell(cell, 0, type) ^ cell(cell, 1, type);
+    }
+
+    public static long bombsLeft(int side, int count) {
+        return BOMB_KEYS[side * MAX_INVENTORY + Math.min(Math.max(count, 0), MAX_INVENTORY - 1)];
+    }
+
+    public static long unflippablesLeft(int side, int count) {
+        return UNFLIPPABLE_KEYS[side * MAX_INVENTORY + Math.min(Math.max(count, 0), MAX_INVENTORY - 1)];
+    }
+
+    public static long secondPlayerToMove() {
+        return SECOND_PLAYER_KEY;
+    }
+}
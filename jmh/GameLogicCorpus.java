@@ -0,0 +1,215 @@
+import benchmark.GameLogicCases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The cases of benchmark.GameLogicBenchmark on a fixed corpus of opening, midgame and endgame positions.
+ * The corpus is generated from a fixed seed, so two builds measure the same positions. Its games place special
+ * discs now and then, so the positions hold bombs and unflippables.
+ */
+public class GameLogicCorpus implements GameLogicCases {
+    private static final long SEED = 20250101L;
+    private static final int POSITIONS_PER_PHASE = 8;
+    private static final int SPECIAL_DISC_ODDS = 5; // The corpus games place a special disc once in this many moves
+    private static final String[] PHASES = {"opening", "midgame", "endgame"};
+    private static final int[] PHASE_PLIES = {6, 24, 48};
+
+    private String engine;
+    private PlayableLogic[] games;
+    private Position[] bombTargets; // The move of every position which flips the most discs
+    private Disc[] bombs;
+    private Position[] lastMoves; // The move which led to every position
+    private Disc[] lastDiscs;
+    private PlayableLogic[] flipGames; // Every valid move of every position, with its game
+    private Position[] flipMoves;
+    private PlayableLogic randomGame;
+    private Random rand;
+
+    @Override
+    public void setUp(String engine, String phase) {
+        this.engine = engine;
+        int[][] lines = createLines(phaseIndex(phase));
+        games = new PlayableLogic[POSITIONS_PER_PHASE];
+        bombTargets = new Position[POSITIONS_PER_PHASE];
+        bombs = new Disc[POSITIONS_PER_PHASE];
+        lastMoves = new Position[POSITIONS_PER_PHASE];
+        lastDiscs = new Disc[POSITIONS_PER_PHASE];
+        List<PlayableLogic> flipGameList = new ArrayList<>();
+        List<Position> flipMoveList = new ArrayList<>();
+        for (int i = 0; i < POSITIONS_PER_PHASE; i++) {
+            PlayableLogic game = replay(lines[i]);
+            games[i] = game;
+            int bestFlips = -1;
+            for (Position move : game.ValidMoves()) {
+                int flips = game.countFlips(move);
+                if (flips > bestFlips) {
+                    bestFlips = flips;
+                    bombTargets[i] = move;
+                }
+                flipGameList.add(game);
+                flipMoveList.add(move);
+            }
+            bombs[i] = new BombDisc(currentPlayer(game));
+            int last = lines[i][lines[i].length - 1];
+            int square = TypedMoves.cell(last);
+            lastMoves[i] = Position.of(square / 8, square % 8);
+            game.undoLastMove();
+            lastDiscs[i] = DiscType.newDisc(TypedMoves.type(last), currentPlayer(game));
+            game.locate_disc(lastMoves[i], lastDiscs[i]);
+        }
+        flipGames = flipGameList.toArray(new PlayableLogic[0]);
+        flipMoves = flipMoveList.toArray(new Position[0]);
+        randomGame = newGame();
+        rand = new Random(SEED);
+    }
+
+    @Override
+    public int positionCount() {
+        return POSITIONS_PER_PHASE;
+    }
+
+    @Override
+    public int flipCaseCount() {
+        return flipMoves.length;
+    }
+
+    @Override
+    public int validMoves(int position) {
+        return games[position].ValidMoves().size();
+    }
+
+    @Override
+    public int countFlips(int flipCase) {
+        return flipGames[flipCase].countFlips(flipMoves[flipCase]);
+    }
+
+    @Override
+    public boolean locateBomb(int position) {
+        PlayableLogic game = games[position];
+        boolean placed = game.locate_disc(bombTargets[position], bombs[position]);
+        game.undoLastMove();
+        return placed;
+    }
+
+    @Override
+    public boolean undoLastMove(int position) {
+        PlayableLogic game = games[position];
+        game.undoLastMove();
+        return game.locate_disc(lastMoves[position], lastDiscs[position]);
+    }
+
+    @Override
+    public boolean isGameFinished(int position) {
+        return games[position].isGameFinished();
+    }
+
+    @Override
+    public int randomGame() {
+        PlayableLogic game = randomGame;
+        game.reset();
+        int plies = 0;
+        List<Position> moves;
+        while (!(moves = game.ValidMoves()).isEmpty()) {
+            Position move = moves.get(rand.nextInt(moves.size()));
+            game.locate_disc(move, new SimpleDisc(currentPlayer(game)));
+            plies++;
+        }
+        return plies;
+    }
+
+    private static int phaseIndex(String phase) {
+        for (int i = 0; i < PHASES.length; i++) {
+            if (PHASES[i].equals(phase)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown phase: " + phase);
+    }
+
+    /**
+     * This function's purpose is to create the lines of the positions of one phase. The lines of the earlier
+     * phases are drawn first from the same generator, so every phase gets the same positions in every run.
+     */
+    private static int[][] createLines(int phase) {
+        Random rand = new Random(SEED);
+        int[][] lines = null;
+        for (int p = 0; p <= phase; p++) {
+            lines = new int[POSITIONS_PER_PHASE][];
+            for (int i = 0; i < POSITIONS_PER_PHASE; i++) {
+                lines[i] = createLine(PHASE_PLIES[p], rand);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * This function's purpose is to create the moves of a random game from the starting position.
+     * Special discs are placed now and then so that the positions hold bombs and unflippables, and the line
+     * is only kept when the player to move at its end still has a bomb and a valid move.
+     * @param plies , the length of the line
+     */
+    private static int[] createLine(int plies, Random rand) {
+        BitboardGameLogic game = new BitboardGameLogic();
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        while (true) {
+            game.reset();
+            int[] line = new int[plies];
+            int ply = 0;
+            for (long legal; ply < plies && (legal = game.validMovesMask()) != 0; ply++) {
+                int square = nthBit(legal, rand.nextInt(Long.bitCount(legal)));
+                boolean first = game.isFirstPlayerTurn();
+                int type = DiscType.SIMPLE;
+                if (rand.nextInt(SPECIAL_DISC_ODDS) == 0) {
+                    type = rand.nextBoolean() && game.getBombsLeft(first) > 1 ? DiscType.BOMB
+                            : game.getUnflippablesLeft(first) > 0 ? DiscType.UNFLIPPABLE : DiscType.SIMPLE;
+                }
+                line[ply] = TypedMoves.encode(square, type);
+                game.play(square, type);
+            }
+            if (ply == plies && game.validMovesMask() != 0 && game.getBombsLeft(game.isFirstPlayerTurn()) > 0) {
+                return line;
+            }
+        }
+    }
+
+    private static int nthBit(long bits, int n) {
+        for (; n > 0; n--) {
+            bits &= bits - 1;
+        }
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    private PlayableLogic newGame() {
+        PlayableLogic game;
+        switch (engine) {
+            case "gamelogic":
+                game = new GameLogic();
+                break;
+            case "bitboard":
+                game = new BitboardGameLogic();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+        game.setPlayers(new HumanPlayer(true), new HumanPlayer(false));
+        return game;
+    }
+
+    private PlayableLogic replay(int[] line) {
+        PlayableLogic game = newGame();
+        for (int move : line) {
+            int square = TypedMoves.cell(move);
+            Disc disc = DiscType.newDisc(TypedMoves.type(move), currentPlayer(game));
+            if (!game.locate_disc(Position.of(square / 8, square % 8), disc)) {
+                throw new IllegalStateException("The corpus move " + square + " is not valid in this engine");
+            }
+        }
+        return game;
+    }
+
+    private static Player currentPlayer(PlayableLogic game) {
+        return game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer();
+    }
+}
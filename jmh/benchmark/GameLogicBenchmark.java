@@ -0,0 +1,117 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the hot paths of the game logic on a fixed corpus of opening, midgame and endgame positions:
+ * ValidMoves, countFlips, locate_disc with a bomb (undone after every call), undoLastMove (the last move of
+ * the position is undone and played again), isGameFinished, and whole random games from the starting position.
+ * Every call works on the next position of the phase in turn, so one operation is one call on one position.
+ * The corpus is generated from a fixed seed, so two builds measure the same positions (see GameLogicCorpus).
+ * <p>
+ * Usage: gradle jmh, which runs every benchmark with both engines and the gc profiler (bytes allocated per
+ * operation) and writes the results as JSON to build/results/jmh/results.json.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class GameLogicBenchmark {
+
+    /**
+     * The positions of one phase of the corpus, replayed on the engine being measured.
+     */
+    @State(Scope.Thread)
+    public static class Corpus {
+        @Param({"gamelogic", "bitboard"})
+        String engine;
+
+        @Param({"opening", "midgame", "endgame"})
+        String phase;
+
+        GameLogicCases cases;
+        int positionMask;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            cases = GameLogicCases.load();
+            cases.setUp(engine, phase);
+            positionMask = cases.positionCount() - 1;
+        }
+
+        int nextPosition() {
+            return next++ & positionMask;
+        }
+    }
+
+    /**
+     * A game of the engine being measured, played again from the starting position by every operation.
+     */
+    @State(Scope.Thread)
+    public static class RandomGame {
+        @Param({"gamelogic", "bitboard"})
+        String engine;
+
+        GameLogicCases cases;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            cases = GameLogicCases.load();
+            cases.setUp(engine, "opening");
+        }
+    }
+
+    @Benchmark
+    public int validMoves(Corpus corpus) {
+        return corpus.cases.validMoves(corpus.nextPosition());
+    }
+
+    @Benchmark
+    public int countFlips(Corpus corpus) {
+        return corpus.cases.countFlips(corpus.next++ % corpus.cases.flipCaseCount());
+    }
+
+    /**
+     * Place a bomb on the move which flips the most discs (bomb chain reactions included), then undo it.
+     */
+    @Benchmark
+    public boolean locateBomb(Corpus corpus) {
+        return corpus.cases.locateBomb(corpus.nextPosition());
+    }
+
+    /**
+     * Undo the last move which led to the position, then play it again.
+     */
+    @Benchmark
+    public boolean undoLastMove(Corpus corpus) {
+        return corpus.cases.undoLastMove(corpus.nextPosition());
+    }
+
+    @Benchmark
+    public boolean isGameFinished(Corpus corpus) {
+        return corpus.cases.isGameFinished(corpus.nextPosition());
+    }
+
+    /**
+     * Play a random game from the starting position to the end, an operation is a whole game.
+     */
+    @Benchmark
+    public int randomGame(RandomGame state) {
+        return state.cases.randomGame();
+    }
+}
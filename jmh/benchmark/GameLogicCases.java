@@ -0,0 +1,53 @@
+package benchmark;
+
+/**
+ * The cases measured by GameLogicBenchmark. JMH only accepts benchmarks in a named package, from which the game
+ * classes of the default package cannot be named, so the cases are implemented by GameLogicCorpus in the default
+ * package and loaded by name once per trial.
+ */
+public interface GameLogicCases {
+
+    /**
+     * This function's purpose is to create the cases, with the class name of the implementation.
+     */
+    static GameLogicCases load() {
+        try {
+            return (GameLogicCases) Class.forName("GameLogicCorpus").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("GameLogicCorpus is missing from the benchmark classpath", e);
+        }
+    }
+
+    /**
+     * Prepare the positions of one phase of the corpus on an engine.
+     * @param engine , "gamelogic" or "bitboard"
+     * @param phase , "opening", "midgame" or "endgame"
+     */
+    void setUp(String engine, String phase);
+
+    /**
+     * Get the number of positions of the phase, a power of two.
+     */
+    int positionCount();
+
+    /**
+     * Get the number of countFlips cases: every valid move of every position.
+     */
+    int flipCaseCount();
+
+    int validMoves(int position);
+
+    int countFlips(int flipCase);
+
+    boolean locateBomb(int position);
+
+    boolean undoLastMove(int position);
+
+    boolean isGameFinished(int position);
+
+    /**
+     * Play a random game from the starting position to the end on the engine of setUp.
+     * @return the number of moves of the game.
+     */
+    int randomGame();
+}